@@ -35,8 +35,16 @@ public final class FileSystem {
     public static final Path BASE_DIR = FileSystem.getCoreGracefully();
     public static final Path LOGS = BASE_DIR.resolve("logs");
     public static final Path BACKUPS = BASE_DIR.resolve("backups");
+    public static final Path BACKUP_REPOSITORY = BACKUPS.resolve("repository");
+    public static final Path BACKUP_CHUNKS = BACKUP_REPOSITORY.resolve("chunks");
+    public static final Path BACKUP_SNAPSHOTS = BACKUP_REPOSITORY.resolve("snapshots");
     public static final Path CACHE = BASE_DIR.resolve("cache");
     public static final Path REMOTE_IMAGE_CACHE = CACHE.resolve("remote_image");
+    public static final Path NATIVES_CACHE = CACHE.resolve("natives");
+    public static final Path LAUNCH_PLANS = CACHE.resolve("launch_plans");
+    public static final Path CUSTOM_MINECRAFT_JARS = CACHE.resolve("minecraft_jars");
+    public static final Path THUMBNAILS = CACHE.resolve("thumbnails");
+    public static final Path PARTIAL_DOWNLOADS = CACHE.resolve("partial_downloads");
     public static final Path LOADERS = BASE_DIR.resolve("loaders");
     public static final Path RUNTIMES = BASE_DIR.resolve("runtimes");
     public static final Path MINECRAFT_RUNTIMES = RUNTIMES.resolve("minecraft");
@@ -59,6 +67,9 @@ public final class FileSystem {
 
     public static final Path DOWNLOADS = BASE_DIR.resolve("downloads");
     public static final Path TECHNIC_DOWNLOADS = DOWNLOADS.resolve("technic");
+    public static final Path MOD_STORE = BASE_DIR.resolve("store");
+    public static final Path MOD_STORE_OBJECTS = MOD_STORE.resolve("objects");
+    public static final Path MOD_STORE_REFS = MOD_STORE.resolve("refs.json");
     public static final Path INSTANCES = BASE_DIR.resolve("instances");
     public static final Path SERVERS = BASE_DIR.resolve("servers");
     public static final Path TEMP = BASE_DIR.resolve("temp");
@@ -68,6 +79,7 @@ public final class FileSystem {
     public static final Path LAUNCHER_CONFIG = CONFIGS.resolve(Constants.LAUNCHER_NAME + ".conf");
     public static final Path SETTINGS = CONFIGS.resolve(Constants.LAUNCHER_NAME + ".json");
     public static final Path ACCOUNTS = CONFIGS.resolve("accounts.json");
+    public static final Path VERIFIED_FILES = CONFIGS.resolve("verified_files.dat");
 
     /**
      * This will organise the file system. This will remove old folders, create
@@ -187,6 +199,8 @@ public final class FileSystem {
 
         FileUtils.createDirectory(DOWNLOADS);
         FileUtils.createDirectory(TECHNIC_DOWNLOADS);
+        FileUtils.createDirectory(MOD_STORE);
+        FileUtils.createDirectory(MOD_STORE_OBJECTS);
         FileUtils.createDirectory(FAILED_DOWNLOADS);
     }
 
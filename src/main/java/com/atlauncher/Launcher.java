@@ -33,11 +33,14 @@ import java.util.stream.Collectors;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.DownloadableFile;
 import com.atlauncher.data.LauncherVersion;
+import com.atlauncher.data.News;
+import com.atlauncher.data.PackUsers;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.tabs.FeaturedPacksTab;
 import com.atlauncher.gui.tabs.InstancesTab;
@@ -51,6 +54,7 @@ import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.managers.ModpacksChUpdateManager;
 import com.atlauncher.managers.ModrinthModpackUpdateManager;
 import com.atlauncher.managers.NewsManager;
@@ -60,8 +64,10 @@ import com.atlauncher.managers.ServerManager;
 import com.atlauncher.managers.TechnicModpackUpdateManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
+import com.atlauncher.network.VerifiedFileIndex;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
+import com.atlauncher.workers.TaskGraph;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
@@ -99,28 +105,38 @@ public class Launcher {
 
         checkForLauncherUpdate();
 
-        ConfigManager.loadConfig(); // Load the config
-
-        NewsManager.loadNews(); // Load the news
-
-        MinecraftManager.loadMinecraftVersions(); // Load info about the different Minecraft versions
-
-        // Load info about the different java runtimes
-        App.TASKPOOL.execute(() -> {
-            MinecraftManager.loadJavaRuntimes();
-        });
-
-        PackManager.loadPacks(); // Load the Packs available in the Launcher
-
-        PackManager.loadUsers(); // Load the Testers and Allowed Players for the packs
-
-        InstanceManager.loadInstances(); // Load the users installed Instances
-
-        ServerManager.loadServers(); // Load the users installed servers
-
-        AccountManager.loadAccounts(); // Load the saved Accounts
-
-        PackManager.removeUnusedImages(); // remove unused pack images
+        // load what the launcher window needs, with each loader starting as soon as what it needs has loaded
+        TaskGraph startup = new TaskGraph("Launcher startup", () -> false)
+                .add("config", ConfigManager::loadConfig)
+                .add("accounts", AccountManager::loadAccounts)
+                .add("minecraftVersions", MinecraftManager::loadMinecraftVersions, "config")
+                .add("packs", PackManager::loadPacks, "config")
+                .add("instances", InstanceManager::loadInstances, "packs", "accounts")
+                .add("servers", ServerManager::loadServers, "config")
+                .add("removeUnusedImages", PackManager::removeUnusedImages, "packs");
+        runStartupGraph(startup);
+
+        // then anything not needed to show the launcher is loaded in the background, with anything the UI reads only
+        // changed on the EDT
+        App.TASKPOOL.execute(() -> runStartupGraph(new TaskGraph("Launcher background startup", () -> false)
+                .add("javaRuntimes", MinecraftManager::loadJavaRuntimes)
+                .add("modStore", ModStoreManager::garbageCollect)
+                .add("verifiedFiles", VerifiedFileIndex::prune)
+                .add("news", () -> {
+                    List<News> news = NewsManager.readNews();
+                    SwingUtilities.invokeLater(() -> {
+                        NewsManager.setNews(news);
+                        reloadNewsPanel();
+                    });
+                })
+                .add("packUsers", () -> {
+                    List<PackUsers> packUsers = PackManager.readUsers();
+                    SwingUtilities.invokeLater(() -> {
+                        PackManager.setUsers(packUsers);
+                        reloadFeaturedPacksPanel();
+                        reloadPacksBrowserPanel();
+                    });
+                })));
 
         if (OS.isWindows() && !Java.is64Bit() && OS.is64Bit()) {
             LogManager.warn("You're using 32 bit Java on a 64 bit Windows install!");
@@ -145,6 +161,17 @@ public class Launcher {
         PerformanceManager.end();
     }
 
+    private void runStartupGraph(TaskGraph graph) {
+        try {
+            graph.run();
+        } catch (Exception e) {
+            LogManager.logStackTrace("Error loading launcher data", e);
+        }
+
+        LogManager.info(graph.getTimings().entrySet().stream().map(e -> e.getKey() + " " + e.getValue() + "ms")
+                .collect(Collectors.joining(", ", "Startup timings: ", "")));
+    }
+
     public boolean launcherHasUpdate() {
         try {
             this.latestLauncherVersion = Gsons.DEFAULT
@@ -496,14 +523,18 @@ public class Launcher {
      * Reloads the panel used for News
      */
     public void reloadNewsPanel() {
-        this.newsPanel.reload(); // Reload the news panel
+        if (newsPanel != null) {
+            this.newsPanel.reload(); // Reload the news panel
+        }
     }
 
     /**
      * Reloads the panel used for Featured Packs
      */
     public void reloadFeaturedPacksPanel() {
-        this.featuredPacksPanel.reload();
+        if (featuredPacksPanel != null) {
+            this.featuredPacksPanel.reload();
+        }
     }
 
     /**
@@ -517,7 +548,9 @@ public class Launcher {
      * Reloads the panel used for the Packs browser
      */
     public void reloadPacksBrowserPanel() {
-        this.packsBrowserPanel.reload(); // Reload the packs browser panel
+        if (packsBrowserPanel != null) {
+            this.packsBrowserPanel.reload(); // Reload the packs browser panel
+        }
     }
 
     /**
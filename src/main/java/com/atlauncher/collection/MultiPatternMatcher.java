@@ -0,0 +1,167 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.collection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Finds every occurrence of any number of fixed strings in a single pass over the text, using the Aho-Corasick
+ * algorithm compiled down to a transition table, so each character of the text costs one array lookup no matter how
+ * many patterns there are.
+ */
+public final class MultiPatternMatcher {
+    private final int[] patternLengths;
+
+    // maps ascii characters to their symbol, anything not in a pattern is symbol 0
+    private final int[] asciiSymbols = new int[128];
+    private final char[] otherChars;
+
+    private final int symbolCount;
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    public MultiPatternMatcher(List<String> patterns) {
+        this.patternLengths = patterns.stream().mapToInt(String::length).toArray();
+
+        TreeSet<Character> others = new TreeSet<>();
+        int nextSymbol = 1;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns cannot be empty");
+            }
+
+            for (char c : pattern.toCharArray()) {
+                if (c < 128) {
+                    if (asciiSymbols[c] == 0) {
+                        asciiSymbols[c] = nextSymbol++;
+                    }
+                } else {
+                    others.add(c);
+                }
+            }
+        }
+
+        this.otherChars = new char[others.size()];
+        int i = 0;
+        for (char c : others) {
+            otherChars[i++] = c;
+        }
+
+        int asciiSymbolCount = nextSymbol;
+        this.symbolCount = asciiSymbolCount + otherChars.length;
+
+        // build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> matches = new ArrayList<>();
+        trie.add(new int[symbolCount]);
+        matches.add(new ArrayList<>());
+
+        for (int p = 0; p < patterns.size(); p++) {
+            int state = 0;
+
+            for (char c : patterns.get(p).toCharArray()) {
+                int symbol = symbol(c);
+
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[symbolCount]);
+                    matches.add(new ArrayList<>());
+                }
+
+                state = trie.get(state)[symbol];
+            }
+
+            matches.get(state).add(p);
+        }
+
+        // breadth first, fill in the missing transitions from the failure links so scanning never has to backtrack
+        int[] failures = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            if (trie.get(0)[symbol] != 0) {
+                queue.add(trie.get(0)[symbol]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            matches.get(state).addAll(matches.get(failures[state]));
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int next = trie.get(state)[symbol];
+
+                if (next == 0) {
+                    trie.get(state)[symbol] = trie.get(failures[state])[symbol];
+                } else {
+                    failures[next] = trie.get(failures[state])[symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.outputs = matches.stream().map(m -> m.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    public int getPatternCount() {
+        return patternLengths.length;
+    }
+
+    /**
+     * Scans the text once, calling the handler for every occurrence of every pattern in the order they end.
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+
+            for (int pattern : outputs[state]) {
+                if (!handler.onMatch(pattern, i + 1 - patternLengths[pattern])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int symbol(char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+
+        int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? 0 : symbolCount - otherChars.length + index;
+    }
+
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * @param pattern the index of the pattern that matched
+         * @param start   where in the text the match starts
+         * @return if scanning should continue
+         */
+        boolean onMatch(int pattern, int start);
+    }
+}
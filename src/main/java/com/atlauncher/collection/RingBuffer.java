@@ -0,0 +1,211 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.collection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A bounded queue for many producers and a single consumer, with a choice of what to do when it's full.
+ *
+ * The consumer drains elements in batches rather than one at a time, and the number of elements dropped because the
+ * buffer was full is counted so it can be reported.
+ */
+public final class RingBuffer<E> {
+    public enum OverflowPolicy {
+        /**
+         * Wait for space, unless the calling thread can't block (or stops being able to while waiting), in which case
+         * the oldest element is dropped.
+         */
+        BLOCK,
+
+        /**
+         * Drop the oldest element to make room.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Keep one in every {@link #SAMPLE_RATE} elements offered while full (dropping the oldest to make room) and
+         * drop the rest, apart from elements which must be kept.
+         */
+        SAMPLE
+    }
+
+    public static final int SAMPLE_RATE = 10;
+
+    // how often a blocked producer checks if it can still block, such as if the consumer has gone away
+    private static final long BLOCK_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Object[] elements;
+    private final OverflowPolicy policy;
+    private final Predicate<E> mustKeep;
+    private final BooleanSupplier canBlock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private int head = 0;
+    private int size = 0;
+    private long offeredWhileFull = 0;
+
+    /**
+     * @param capacity the most elements the buffer can hold
+     * @param policy   what to do when the buffer is full
+     * @param mustKeep elements which are never dropped when sampling
+     * @param canBlock if the calling thread is allowed to block waiting for space
+     */
+    public RingBuffer(int capacity, OverflowPolicy policy, Predicate<E> mustKeep, BooleanSupplier canBlock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+
+        this.elements = new Object[capacity];
+        this.policy = policy;
+        this.mustKeep = mustKeep;
+        this.canBlock = canBlock;
+    }
+
+    /**
+     * Adds an element, following the overflow policy if the buffer is full.
+     *
+     * @return if the element was added
+     */
+    public boolean offer(E element) {
+        boolean interrupted = false;
+
+        lock.lock();
+
+        try {
+            if (size == elements.length && policy == OverflowPolicy.BLOCK) {
+                interrupted = awaitSpace();
+            }
+
+            if (size == elements.length) {
+                if (policy == OverflowPolicy.SAMPLE && !mustKeep.test(element)
+                        && offeredWhileFull++ % SAMPLE_RATE != 0) {
+                    dropped.increment();
+                    return false;
+                } else {
+                    // drop the oldest to make room
+                    elements[head] = null;
+                    head = (head + 1) % elements.length;
+                    size--;
+                    dropped.increment();
+                }
+            } else {
+                offeredWhileFull = 0;
+            }
+
+            elements[(head + size) % elements.length] = element;
+            size++;
+            notEmpty.signal();
+
+            return true;
+        } finally {
+            lock.unlock();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits for space for as long as the calling thread can block, without being interrupted. Must be called holding
+     * the lock.
+     *
+     * @return if the thread was interrupted while waiting
+     */
+    private boolean awaitSpace() {
+        boolean interrupted = false;
+
+        while (size == elements.length && canBlock.getAsBoolean()) {
+            try {
+                notFull.awaitNanos(BLOCK_CHECK_INTERVAL_NANOS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        return interrupted;
+    }
+
+    /**
+     * Waits for at least one element, and then moves up to the given number of elements into the given list.
+     *
+     * @return the number of elements drained
+     */
+    public int drainTo(List<E> to, int max) throws InterruptedException {
+        lock.lockInterruptibly();
+
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+
+            return drain(to, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int drain(List<E> to, int max) {
+        int count = Math.min(size, max);
+
+        for (int i = 0; i < count; i++) {
+            to.add((E) elements[head]);
+            elements[head] = null;
+            head = (head + 1) % elements.length;
+        }
+
+        size -= count;
+        notFull.signalAll();
+
+        return count;
+    }
+
+    public int size() {
+        lock.lock();
+
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * The number of elements dropped because the buffer was full.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
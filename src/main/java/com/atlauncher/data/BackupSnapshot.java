@@ -0,0 +1,57 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.atlauncher.App;
+
+/**
+ * A single backup of an instance in the backup repository. Files are stored as a list of chunks by their hash, so
+ * anything unchanged between snapshots is only stored once.
+ */
+public class BackupSnapshot {
+    public String instance;
+    public Date time;
+    public BackupMode backupMode;
+    public long size = 0L;
+    public List<BackupSnapshotFile> files = new ArrayList<>();
+
+    // where this snapshot was loaded from
+    public transient Path path;
+
+    public BackupSnapshotFile getFile(String name) {
+        return files.stream().filter(f -> f.path.equals(name)).findFirst().orElse(null);
+    }
+
+    public String toString() {
+        return String.format("%s (%s, %d files)",
+                new SimpleDateFormat(App.settings.dateFormat + " HH:mm:ss").format(time), backupMode, files.size());
+    }
+
+    public static class BackupSnapshotFile {
+        public String path;
+        public long size;
+        public long modified;
+        public List<String> chunks = new ArrayList<>();
+    }
+}
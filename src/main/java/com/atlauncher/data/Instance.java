@@ -20,11 +20,8 @@ package com.atlauncher.data;
 import java.awt.BorderLayout;
 import java.awt.Dialog.ModalityType;
 import java.awt.Dimension;
-import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileWriter;
@@ -36,10 +33,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,7 +43,6 @@ import java.util.Properties;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import javax.imageio.ImageIO;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
@@ -114,19 +108,24 @@ import com.atlauncher.gui.dialogs.InstanceInstallerDialog;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.dialogs.RenameInstanceDialog;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.BackupManager;
 import com.atlauncher.managers.CurseForgeUpdateManager;
+import com.atlauncher.managers.CustomJarManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.ModpacksChUpdateManager;
 import com.atlauncher.managers.ModrinthModpackUpdateManager;
+import com.atlauncher.managers.NativesManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.TechnicModpackUpdateManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.mclauncher.MCLauncher;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
+import com.atlauncher.network.VerifiedFileIndex;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.CommandExecutor;
@@ -135,7 +134,7 @@ import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
-import com.atlauncher.utils.ZipNameMapper;
+import com.atlauncher.workers.TaskGraph;
 import com.google.gson.JsonIOException;
 
 import org.mini2Dx.gettext.GetText;
@@ -307,36 +306,28 @@ public class Instance extends MinecraftVersion {
     }
 
     public ImageIcon getImage() {
-        File customImage = this.getRoot().resolve("instance.png").toFile();
-
-        if (customImage.exists()) {
-            try {
-                BufferedImage img = ImageIO.read(customImage);
-
-                // if a square image, then make it 300x150 (without stretching) centered
-                if (img.getHeight(null) == img.getWidth(null)) {
-                    BufferedImage dimg = new BufferedImage(300, 150, BufferedImage.TYPE_INT_ARGB);
+        Path customImage = this.getRoot().resolve("instance.png");
 
-                    Graphics2D g2d = dimg.createGraphics();
-                    g2d.drawImage(img, 75, 0, 150, 150, null);
-                    g2d.dispose();
+        if (Files.exists(customImage)) {
+            // if a square image, then make it 300x150 (without stretching) centered
+            ImageIcon image = ThumbnailManager.getThumbnail(customImage, 300, 150,
+                    ThumbnailManager.Scaling.KEEP_SQUARES);
 
-                    return new ImageIcon(dimg);
-                }
-
-                return new ImageIcon(img.getScaledInstance(300, 150, Image.SCALE_SMOOTH));
-            } catch (Exception e) {
-                LogManager.logStackTrace(
-                        "Error creating scaled image from the custom image of instance " + this.launcher.name, e,
-                        false);
+            if (image != null) {
+                return image;
             }
         }
 
         if (getPack() != null) {
-            File instancesImage = FileSystem.IMAGES.resolve(this.getSafePackName().toLowerCase() + ".png").toFile();
+            Path instancesImage = FileSystem.IMAGES.resolve(this.getSafePackName().toLowerCase() + ".png");
+
+            if (Files.exists(instancesImage)) {
+                ImageIcon image = ThumbnailManager.getThumbnail(instancesImage, 300, 150,
+                        ThumbnailManager.Scaling.STRETCH);
 
-            if (instancesImage.exists()) {
-                return Utils.getIconImage(instancesImage);
+                if (image != null) {
+                    return image;
+                }
             }
         }
 
@@ -433,12 +424,45 @@ public class Instance extends MinecraftVersion {
      * Minecraft jar and libraries, as well as organise the libraries, ready to be
      * played.
      */
-    public boolean prepareForLaunch(ProgressDialog progressDialog, Path nativesTempDir) {
+    public boolean prepareForLaunch(ProgressDialog<?> progressDialog, Path nativesDir) {
         PerformanceManager.start();
         OkHttpClient httpClient = Network.createProgressClient(progressDialog);
+        Thread preparingThread = Thread.currentThread();
+
+        // only the natives and custom jar need anything else to be done first, and anything already verified is
+        // skipped, so when nothing has changed since the last launch this does very little
+        TaskGraph taskGraph = new TaskGraph("Instance.prepareForLaunch", preparingThread::isInterrupted)
+                .add("Grabbing Latest Manifest", () -> refreshManifest(progressDialog, httpClient))
+                .add("Downloading Minecraft", () -> downloadMinecraft(progressDialog, httpClient),
+                        "Grabbing Latest Manifest")
+                .add("Downloading Logging Config", () -> downloadLoggingConfig(progressDialog, httpClient),
+                        "Grabbing Latest Manifest")
+                .add("Downloading Libraries", () -> downloadLibraries(progressDialog, httpClient))
+                .add("Java Runtime", () -> downloadJavaRuntime(progressDialog, httpClient), "Grabbing Latest Manifest")
+                .add("Organising Resources", () -> downloadResources(progressDialog, httpClient),
+                        "Grabbing Latest Manifest")
+                .add("Extracting Natives", () -> extractNatives(progressDialog, nativesDir), "Downloading Libraries")
+                .add("Creating custom minecraft.jar", () -> createCustomMinecraftJar(progressDialog),
+                        "Downloading Minecraft");
+
+        progressDialog.setTotalBytes(0L);
+
+        try {
+            taskGraph.run();
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to prepare instance " + launcher.name + " for launch", e);
+            PerformanceManager.end();
+            return false;
+        }
 
+        progressDialog.clearDownloadedBytes();
+
+        PerformanceManager.end();
+        return !preparingThread.isInterrupted();
+    }
+
+    private void refreshManifest(ProgressDialog<?> progressDialog, OkHttpClient httpClient) {
         // make sure latest manifest is being used
-        PerformanceManager.start("Grabbing Latest Manifest");
         try {
             progressDialog.setLabel(GetText.tr("Grabbing Latest Manifest"));
             VersionManifestVersion minecraftVersionManifest = MinecraftManager
@@ -464,61 +488,44 @@ public class Instance extends MinecraftVersion {
         } catch (Exception e) {
             // ignored
         }
-        progressDialog.doneTask();
-        PerformanceManager.end("Grabbing Latest Manifest");
+        progressDialog.doneConcurrentTask();
+    }
 
-        PerformanceManager.start("Downloading Minecraft");
-        try {
-            progressDialog.setLabel(GetText.tr("Downloading Minecraft"));
-            com.atlauncher.network.Download clientDownload = com.atlauncher.network.Download.build()
-                    .setUrl(this.downloads.client.url).hash(this.downloads.client.sha1).size(this.downloads.client.size)
-                    .withHttpClient(httpClient).downloadTo(this.getMinecraftJarLibraryPath());
-
-            if (clientDownload.needToDownload()) {
-                progressDialog.setTotalBytes(this.downloads.client.size);
-                clientDownload.downloadFile();
-            }
+    private void downloadMinecraft(ProgressDialog<?> progressDialog, OkHttpClient httpClient) throws IOException {
+        progressDialog.setLabel(GetText.tr("Downloading Minecraft"));
+        com.atlauncher.network.Download clientDownload = com.atlauncher.network.Download.build()
+                .setUrl(this.downloads.client.url).hash(this.downloads.client.sha1).size(this.downloads.client.size)
+                .withHttpClient(httpClient).downloadTo(this.getMinecraftJarLibraryPath());
 
-            progressDialog.doneTask();
-        } catch (IOException e) {
-            LogManager.logStackTrace(e);
-            PerformanceManager.end("Downloading Minecraft");
-            PerformanceManager.end();
-            return false;
+        if (clientDownload.needToDownload()) {
+            progressDialog.addBytesToDownload(this.downloads.client.size);
+            clientDownload.downloadFile();
         }
-        PerformanceManager.end("Downloading Minecraft");
 
-        if (logging != null) {
-            PerformanceManager.start("Downloading Logging Config");
-            try {
-                progressDialog.setLabel(GetText.tr("Downloading Logging Config"));
+        progressDialog.doneConcurrentTask();
+    }
 
-                LoggingFile loggingFile = logging.client.file;
+    private void downloadLoggingConfig(ProgressDialog<?> progressDialog, OkHttpClient httpClient) throws IOException {
+        if (logging != null) {
+            progressDialog.setLabel(GetText.tr("Downloading Logging Config"));
 
-                com.atlauncher.network.Download loggerDownload = com.atlauncher.network.Download.build().cached()
-                        .setUrl(loggingFile.url).hash(loggingFile.sha1)
-                        .size(loggingFile.size).downloadTo(FileSystem.RESOURCES_LOG_CONFIGS.resolve(loggingFile.id))
-                        .withHttpClient(httpClient);
+            LoggingFile loggingFile = logging.client.file;
 
-                if (loggerDownload.needToDownload()) {
-                    progressDialog.setTotalBytes(loggingFile.size);
-                    loggerDownload.downloadFile();
-                }
+            com.atlauncher.network.Download loggerDownload = com.atlauncher.network.Download.build().cached()
+                    .setUrl(loggingFile.url).hash(loggingFile.sha1)
+                    .size(loggingFile.size).downloadTo(FileSystem.RESOURCES_LOG_CONFIGS.resolve(loggingFile.id))
+                    .withHttpClient(httpClient);
 
-                progressDialog.doneTask();
-            } catch (IOException e) {
-                LogManager.logStackTrace(e);
-                PerformanceManager.end("Downloading Logging Config");
-                PerformanceManager.end();
-                return false;
+            if (loggerDownload.needToDownload()) {
+                progressDialog.addBytesToDownload(loggingFile.size);
+                loggerDownload.downloadFile();
             }
-            PerformanceManager.end("Downloading Logging Config");
-        } else {
-            progressDialog.doneTask();
         }
 
-        // download libraries
-        PerformanceManager.start("Downloading Libraries");
+        progressDialog.doneConcurrentTask();
+    }
+
+    private void downloadLibraries(ProgressDialog<?> progressDialog, OkHttpClient httpClient) {
         progressDialog.setLabel(GetText.tr("Downloading Libraries"));
         DownloadPool librariesPool = new DownloadPool();
 
@@ -526,7 +533,10 @@ public class Instance extends MinecraftVersion {
         this.libraries.stream()
                 .filter(library -> library.shouldInstall() && library.downloads.artifact != null
                         && library.downloads.artifact.url != null && !library.hasNativeForOS())
-                .distinct().forEach(library -> {
+                .distinct()
+                .filter(library -> !VerifiedFileIndex.isVerified(
+                        FileSystem.LIBRARIES.resolve(library.downloads.artifact.path), library.downloads.artifact.sha1))
+                .forEach(library -> {
                     com.atlauncher.network.Download download = new com.atlauncher.network.Download()
                             .setUrl(library.downloads.artifact.url)
                             .downloadTo(FileSystem.LIBRARIES.resolve(library.downloads.artifact.path))
@@ -539,22 +549,27 @@ public class Instance extends MinecraftVersion {
         this.libraries.stream().filter(Library::hasNativeForOS).forEach(library -> {
             com.atlauncher.data.minecraft.Download download = library.getNativeDownloadForOS();
 
+            if (VerifiedFileIndex.isVerified(FileSystem.LIBRARIES.resolve(download.path), download.sha1)) {
+                return;
+            }
+
             librariesPool.add(new com.atlauncher.network.Download().setUrl(download.url)
                     .downloadTo(FileSystem.LIBRARIES.resolve(download.path)).hash(download.sha1).size(download.size)
                     .withHttpClient(httpClient));
         });
 
-        DownloadPool smallLibrariesPool = librariesPool.downsize();
+        if (librariesPool.size() != 0) {
+            DownloadPool smallLibrariesPool = librariesPool.downsize();
 
-        progressDialog.setTotalBytes(smallLibrariesPool.totalSize());
+            progressDialog.addBytesToDownload(smallLibrariesPool.totalSize());
 
-        smallLibrariesPool.downloadAll();
+            smallLibrariesPool.downloadAll();
+        }
 
-        progressDialog.doneTask();
-        PerformanceManager.end("Downloading Libraries");
+        progressDialog.doneConcurrentTask();
+    }
 
-        // download Java runtime
-        PerformanceManager.start("Java Runtime");
+    private void downloadJavaRuntime(ProgressDialog<?> progressDialog, OkHttpClient httpClient) {
         if (javaVersion != null && Data.JAVA_RUNTIMES != null && (!OS.isArm() || OS.isMacArm()) && Optional
                 .ofNullable(launcher.useJavaProvidedByMinecraft).orElse(App.settings.useJavaProvidedByMinecraft)) {
             Map<String, List<JavaRuntime>> runtimesForSystem = Data.JAVA_RUNTIMES.getForSystem();
@@ -596,7 +611,8 @@ public class Instance extends MinecraftVersion {
 
                     // collect the files we need to download
                     javaRuntimeManifest.files.forEach((key, file) -> {
-                        if (file.type == JavaRuntimeManifestFileType.FILE) {
+                        if (file.type == JavaRuntimeManifestFileType.FILE && !VerifiedFileIndex
+                                .isVerified(runtimeDirectory.resolve(key), file.downloads.raw.sha1)) {
                             com.atlauncher.network.Download download = new com.atlauncher.network.Download()
                                     .setUrl(file.downloads.raw.url).downloadTo(runtimeDirectory.resolve(key))
                                     .hash(file.downloads.raw.sha1).size(file.downloads.raw.size)
@@ -606,11 +622,13 @@ public class Instance extends MinecraftVersion {
                         }
                     });
 
-                    DownloadPool smallPool = pool.downsize();
+                    if (pool.size() != 0) {
+                        DownloadPool smallPool = pool.downsize();
 
-                    progressDialog.setTotalBytes(smallPool.totalSize());
+                        progressDialog.addBytesToDownload(smallPool.totalSize());
 
-                    smallPool.downloadAll();
+                        smallPool.downloadAll();
+                    }
 
                     // write out the version file (theres also a .sha1 file created, but we're not
                     // doing that)
@@ -623,11 +641,10 @@ public class Instance extends MinecraftVersion {
                 }
             }
         }
-        progressDialog.doneTask();
-        PerformanceManager.end("Java Runtime");
+        progressDialog.doneConcurrentTask();
+    }
 
-        // organise assets
-        PerformanceManager.start("Organising Resources 1");
+    private void downloadResources(ProgressDialog<?> progressDialog, OkHttpClient httpClient) throws IOException {
         progressDialog.setLabel(GetText.tr("Organising Resources"));
         MojangAssetIndex assetIndex = this.assetIndex;
 
@@ -635,10 +652,19 @@ public class Instance extends MinecraftVersion {
                 .size(assetIndex.size).downloadTo(FileSystem.RESOURCES_INDEXES.resolve(assetIndex.id + ".json"))
                 .withHttpClient(httpClient).asClass(AssetIndex.class);
 
+        if (index == null) {
+            throw new IOException("Failed to get asset index " + assetIndex.id);
+        }
+
         DownloadPool pool = new DownloadPool();
 
         index.objects.forEach((key, object) -> {
             String filename = object.hash.substring(0, 2) + "/" + object.hash;
+
+            if (VerifiedFileIndex.isVerified(FileSystem.RESOURCES_OBJECTS.resolve(filename), object.hash)) {
+                return;
+            }
+
             String url = String.format("%s/%s", Constants.MINECRAFT_RESOURCES, filename);
 
             com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
@@ -648,20 +674,20 @@ public class Instance extends MinecraftVersion {
             pool.add(download);
         });
 
-        DownloadPool smallPool = pool.downsize();
+        if (pool.size() != 0) {
+            DownloadPool smallPool = pool.downsize();
 
-        if (smallPool.size() != 0) {
-            progressDialog.setLabel(GetText.tr("Downloading Resources"));
+            if (smallPool.size() != 0) {
+                progressDialog.setLabel(GetText.tr("Downloading Resources"));
 
-            progressDialog.setTotalBytes(smallPool.totalSize());
+                progressDialog.addBytesToDownload(smallPool.totalSize());
 
-            smallPool.downloadAll();
+                smallPool.downloadAll();
+            }
         }
-        PerformanceManager.end("Organising Resources 1");
 
         // copy resources to instance
         if (index.mapToResources || assetIndex.id.equalsIgnoreCase("legacy")) {
-            PerformanceManager.start("Organising Resources 2");
             progressDialog.setLabel(GetText.tr("Organising Resources"));
 
             index.objects.forEach((key, object) -> {
@@ -675,61 +701,49 @@ public class Instance extends MinecraftVersion {
                     FileUtils.copyFile(downloadedFile, assetPath, true);
                 }
             });
-            PerformanceManager.end("Organising Resources 2");
         }
 
-        progressDialog.doneTask();
+        progressDialog.doneConcurrentTask();
+    }
 
+    private void extractNatives(ProgressDialog<?> progressDialog, Path nativesDir) throws IOException {
         progressDialog.setLabel(GetText.tr("Organising Libraries"));
 
-        // extract natives to a temp dir
-        PerformanceManager.start("Extracting Natives");
+        // natives are extracted once into a shared cache and then linked into this launch's natives directory
         boolean useSystemGlfw = Optional.ofNullable(launcher.useSystemGlfw).orElse(App.settings.useSystemGlfw);
         boolean useSystemOpenAl = Optional.ofNullable(launcher.useSystemOpenAl).orElse(App.settings.useSystemOpenAl);
-        this.libraries.stream().filter(Library::shouldInstall).forEach(library -> {
-            if (library.hasNativeForOS()) {
-                if ((library.name.contains("glfw") && useSystemGlfw)
-                        || (library.name.contains("openal") && useSystemOpenAl)) {
-                    return;
-                }
+        List<Path> extractedNatives = new ArrayList<>();
+        for (Library library : this.libraries) {
+            if (!library.shouldInstall() || !library.hasNativeForOS()) {
+                continue;
+            }
 
-                Path nativePath = FileSystem.LIBRARIES.resolve(library.getNativeDownloadForOS().path);
+            if ((library.name.contains("glfw") && useSystemGlfw)
+                    || (library.name.contains("openal") && useSystemOpenAl)) {
+                continue;
+            }
 
-                ArchiveUtils.extract(nativePath, nativesTempDir, name -> {
-                    if (library.extract != null && library.extract.shouldExclude(name)) {
-                        return null;
-                    }
+            com.atlauncher.data.minecraft.Download download = library.getNativeDownloadForOS();
 
-                    return name;
-                });
-            }
-        });
+            extractedNatives.add(NativesManager.getExtracted(FileSystem.LIBRARIES.resolve(download.path),
+                    download.sha1, library.extract));
+        }
 
-        progressDialog.doneTask();
-        PerformanceManager.end("Extracting Natives");
+        NativesManager.assemble(extractedNatives, nativesDir);
+        NativesManager.garbageCollect();
 
+        progressDialog.doneConcurrentTask();
+    }
+
+    private void createCustomMinecraftJar(ProgressDialog<?> progressDialog) throws IOException {
         if (usesCustomMinecraftJar()) {
-            PerformanceManager.start("Creating custom minecraft.jar");
             progressDialog.setLabel(GetText.tr("Creating custom minecraft.jar"));
 
-            if (Files.exists(getCustomMinecraftJarLibraryPath())) {
-                FileUtils.delete(getCustomMinecraftJarLibraryPath());
-            }
-
-            if (!Utils.combineJars(getMinecraftJar(), getRoot().resolve("bin/modpack.jar").toFile(),
-                    getCustomMinecraftJar())) {
-                LogManager.error("Failed to combine jars into custom minecraft.jar");
-                PerformanceManager.end("Creating custom minecraft.jar");
-                PerformanceManager.end();
-                return false;
-            }
-            PerformanceManager.end("Creating custom minecraft.jar");
+            CustomJarManager.installCombinedJar(getMinecraftJarLibraryPath(), getRoot().resolve("bin/modpack.jar"),
+                    getCustomMinecraftJarLibraryPath());
         }
 
-        progressDialog.doneTask();
-
-        PerformanceManager.end();
-        return true;
+        progressDialog.doneConcurrentTask();
     }
 
     public boolean launch() {
@@ -804,19 +818,15 @@ public class Instance extends MinecraftVersion {
             }
         }
 
-        Path nativesTempDir = FileSystem.TEMP.resolve("natives-" + UUID.randomUUID().toString().replace("-", ""));
+        // each launch gets its own natives directory, so launching an instance that's already running doesn't touch
+        // the natives that are in use
+        Path nativesDir = FileSystem.TEMP.resolve("natives-" + UUID.randomUUID().toString().replace("-", ""));
 
-        try {
-            Files.createDirectory(nativesTempDir);
-        } catch (IOException e2) {
-            LogManager.logStackTrace(e2, false);
-        }
-
-        ProgressDialog<Boolean> prepareDialog = new ProgressDialog<>(GetText.tr("Preparing For Launch"), 7,
+        ProgressDialog<Boolean> prepareDialog = new ProgressDialog<>(GetText.tr("Preparing For Launch"), 8,
                 GetText.tr("Preparing For Launch"));
         prepareDialog.addThread(new Thread(() -> {
             LogManager.info("Preparing for launch!");
-            prepareDialog.setReturnValue(prepareForLaunch(prepareDialog, nativesTempDir));
+            prepareDialog.setReturnValue(prepareForLaunch(prepareDialog, nativesDir));
             prepareDialog.close();
         }));
         prepareDialog.start();
@@ -897,7 +907,7 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    process = MCLauncher.launch(mojangAccount, this, session, nativesTempDir, wrapperCommand, username);
+                    process = MCLauncher.launch(mojangAccount, this, session, nativesDir, wrapperCommand, username);
                 } else if (account instanceof MicrosoftAccount) {
                     MicrosoftAccount microsoftAccount = (MicrosoftAccount) account;
 
@@ -938,11 +948,11 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    process = MCLauncher.launch(microsoftAccount, this, nativesTempDir, wrapperCommand, username);
+                    process = MCLauncher.launch(microsoftAccount, this, nativesDir, wrapperCommand, username);
                 }
                 else if (offline) {
                     LogManager.info("Launching offline!");
-                    process = MCLauncher.launch(null, this, nativesTempDir, wrapperCommand, username);
+                    process = MCLauncher.launch(null, this, nativesDir, wrapperCommand, username);
                 }
 
                 if (process == null) {
@@ -998,24 +1008,11 @@ public class Instance extends MinecraftVersion {
                 // String replaceUUID = account.uuid.replace("-", "");
 
                 while ((line = br.readLine()) != null) {
-                    if (line.contains("java.lang.OutOfMemoryError")
-                            || line.contains("There is insufficient memory for the Java Runtime Environment")) {
-                        detectedError = MinecraftError.OUT_OF_MEMORY;
-                    }
-
-                    if (line.contains("java.util.ConcurrentModificationException")
-                            && Utils.matchVersion(this.id, "1.6", true, true)) {
-                        detectedError = MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6;
-                    }
-
-                    if (line.contains(
-                            "has been compiled by a more recent version of the Java Runtime (class file version 60.0)")) {
-                        detectedError = MinecraftError.NEED_TO_USE_JAVA_16_OR_NEWER;
-                    }
+                    MinecraftLogClassifier.Classification classification = MinecraftLogClassifier.classify(line,
+                            this.id);
 
-                    if (line.contains(
-                            "class jdk.internal.loader.ClassLoaders$AppClassLoader cannot be cast to class")) {
-                        detectedError = MinecraftError.USING_NEWER_JAVA_THAN_8;
+                    if (classification.error != 0) {
+                        detectedError = classification.error;
                     }
 
                     if (!LogManager.showDebug) {
@@ -1029,17 +1026,17 @@ public class Instance extends MinecraftVersion {
                     //     line = line.replace(account.getAccessToken(), "**ACCESSTOKEN**");
                     // }
 
-                    if (line.contains("log4j:")) {
+                    if (classification.log4j) {
                         try {
                             // start of a new event so clear string builder
-                            if (line.contains("<log4j:Event>")) {
+                            if (classification.log4jEventStart) {
                                 sb.setLength(0);
                             }
 
                             sb.append(line);
 
                             // end of the xml object so parse it
-                            if (line.contains("</log4j:Event>")) {
+                            if (classification.log4jEventEnd) {
                                 LogManager.minecraftLog4j(sb.toString());
                                 sb.setLength(0);
                             }
@@ -1050,7 +1047,7 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    LogManager.minecraft(line);
+                    LogManager.minecraft(classification);
                 }
                 App.launcher.hideKillMinecraft();
                 if (App.launcher.getParent() != null && App.settings.keepLauncherOpen) {
@@ -1127,11 +1124,8 @@ public class Instance extends MinecraftVersion {
                     App.launcher.reloadInstancesPanel();
                     App.launcher.updateData();
                 }
-                if (Files.isDirectory(nativesTempDir)) {
-                    FileUtils.deleteDirectory(nativesTempDir);
-                }
-                if (usesCustomMinecraftJar() && Files.exists(getCustomMinecraftJarLibraryPath())) {
-                    FileUtils.delete(getCustomMinecraftJarLibraryPath());
+                if (Files.isDirectory(nativesDir)) {
+                    FileUtils.deleteDirectory(nativesDir);
                 }
                 if (!App.settings.keepLauncherOpen) {
                     System.exit(0);
@@ -2181,15 +2175,19 @@ public class Instance extends MinecraftVersion {
         Analytics.sendEvent(launcher.pack + " - " + launcher.version, "Backup", getAnalyticsCategory());
 
         final Thread backupThread = new Thread(() -> {
-            Timestamp timestamp = new Timestamp(new Date().getTime());
-            String time = timestamp.toString().replaceAll("[^0-9]", "_");
-            String filename = getSafeName() + "-" + time.substring(0, time.lastIndexOf("_")) + ".zip";
+            BackupSnapshot snapshot = BackupManager.createSnapshot(this, backupMode);
 
-            ArchiveUtils.createZip(getRoot(), FileSystem.BACKUPS.resolve(filename),
-                    ZipNameMapper.getMapperForBackupMode(backupMode));
+            if (snapshot != null) {
+                BackupManager.pruneSnapshots(this, App.settings.backupsToKeep);
+            }
 
             dialog.dispose();
-            App.TOASTER.pop(GetText.tr("Backup is complete"));
+
+            if (snapshot != null) {
+                App.TOASTER.pop(GetText.tr("Backup is complete"));
+            } else if (!Thread.currentThread().isInterrupted()) {
+                App.TOASTER.popError(GetText.tr("Backup failed. Please check the console for more information."));
+            }
         });
         backupThread.start();
         dialog.addWindowListener(new WindowAdapter() {
@@ -2201,6 +2199,49 @@ public class Instance extends MinecraftVersion {
         dialog.setVisible(true);
     }
 
+    public void restoreBackup() {
+        List<BackupSnapshot> snapshots = BackupManager.getSnapshots(this);
+
+        if (snapshots.isEmpty()) {
+            DialogManager.okDialog().setTitle(GetText.tr("No Backups"))
+                    .setContent(GetText.tr("There are no backups for this instance.")).setType(DialogManager.INFO)
+                    .show();
+            return;
+        }
+
+        JComboBox<BackupSnapshot> snapshotComboBox = new JComboBox<>(snapshots.toArray(new BackupSnapshot[0]));
+
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(new JLabel(GetText.tr("Select the backup to restore. Any changes since then will be lost.")),
+                BorderLayout.NORTH);
+        panel.add(snapshotComboBox, BorderLayout.CENTER);
+
+        int ret = DialogManager.okCancelDialog().setTitle(GetText.tr("Restore Backup")).setContent(panel)
+                .setType(DialogManager.WARNING).show();
+
+        if (ret != 0) {
+            return;
+        }
+
+        BackupSnapshot snapshot = (BackupSnapshot) snapshotComboBox.getSelectedItem();
+
+        Analytics.sendEvent(launcher.pack + " - " + launcher.version, "RestoreBackup", getAnalyticsCategory());
+
+        ProgressDialog<Boolean> progressDialog = new ProgressDialog<>(GetText.tr("Restoring Backup"), 0,
+                GetText.tr("Restoring Backup"), "Aborting restoring backup");
+        progressDialog.addThread(new Thread(() -> {
+            progressDialog.setReturnValue(BackupManager.restoreSnapshot(this, snapshot));
+            progressDialog.close();
+        }));
+        progressDialog.start();
+
+        if (progressDialog.getReturnValue() != null && progressDialog.getReturnValue()) {
+            App.TOASTER.pop(GetText.tr("Backup restored"));
+        } else {
+            App.TOASTER.popError(GetText.tr("Failed to restore backup. Please check the console for more information."));
+        }
+    }
+
     public boolean canChangeDescription() {
         return isExternalPack() || launcher.vanillaInstance || (getPack() != null && getPack().system);
     }
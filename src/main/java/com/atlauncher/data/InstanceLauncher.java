@@ -79,6 +79,9 @@ public class InstanceLauncher {
     public boolean isPlayable;
     public boolean assetsMapToResources;
 
+    // identifies the instance's backups, so they're kept when it's renamed
+    public String backupId = null;
+
     @SerializedName(value = "curseForgeManifest", alternate = { "curseManifest" })
     public CurseForgeManifest curseForgeManifest;
 
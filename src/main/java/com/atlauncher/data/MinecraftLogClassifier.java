@@ -0,0 +1,228 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlauncher.collection.MultiPatternMatcher;
+import com.atlauncher.evnt.LogEvent.LogType;
+import com.atlauncher.utils.Utils;
+
+/**
+ * Works out the log level of, and any known crash in, a line of output from Minecraft with a single scan of the line.
+ *
+ * What to look for is kept in the tables below, which are compiled into one {@link MultiPatternMatcher}, so adding a
+ * rule or crash signature is just adding a line to a table.
+ */
+public final class MinecraftLogClassifier {
+    /**
+     * Checked in order, and the first rule whose marker is in the line decides its level. The logged message starts at
+     * the marker unless the rule says to keep the whole line.
+     */
+    private static final List<Rule> RULES = new ArrayList<>(Arrays.asList(
+            new Rule("[INFO] [STDERR]", LogType.WARN),
+            new Rule("[INFO]", LogType.INFO).unless("CONFLICT", LogType.ERROR).unless("overwriting existing item",
+                    LogType.WARN),
+            new Rule("[WARNING]", LogType.WARN),
+            new Rule("WARNING:", LogType.WARN),
+            new Rule("INFO:", LogType.INFO),
+            new Rule("Exception", LogType.ERROR).wholeLine(),
+            new Rule("[SEVERE]", LogType.ERROR)));
+
+    /**
+     * Threads whose "[thread/LEVEL]" markers are checked, in order, after the rules above.
+     */
+    private static final List<String> THREADS = Arrays.asList("Sound Library Loader", "MCO Availability Checker #1",
+            "Client thread", "Server thread", "main");
+
+    /**
+     * Known crashes, where later signatures win if a line has more than one.
+     */
+    private static final List<Signature> SIGNATURES = Arrays.asList(
+            new Signature("java.lang.OutOfMemoryError", MinecraftError.OUT_OF_MEMORY),
+            new Signature("There is insufficient memory for the Java Runtime Environment",
+                    MinecraftError.OUT_OF_MEMORY),
+            new Signature("java.util.ConcurrentModificationException",
+                    MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6).onlyUpTo("1.6"),
+            new Signature(
+                    "has been compiled by a more recent version of the Java Runtime (class file version 60.0)",
+                    MinecraftError.NEED_TO_USE_JAVA_16_OR_NEWER),
+            new Signature("class jdk.internal.loader.ClassLoaders$AppClassLoader cannot be cast to class",
+                    MinecraftError.USING_NEWER_JAVA_THAN_8));
+
+    private static final String LOG4J = "log4j:";
+    private static final String LOG4J_EVENT_START = "<log4j:Event>";
+    private static final String LOG4J_EVENT_END = "</log4j:Event>";
+
+    private static final List<String> patterns = new ArrayList<>();
+    private static final Map<String, Integer> patternIds = new HashMap<>();
+    private static final MultiPatternMatcher matcher;
+
+    static {
+        for (String thread : THREADS) {
+            for (LogType type : new LogType[] { LogType.ERROR, LogType.WARN, LogType.INFO }) {
+                RULES.add(new Rule("[" + thread + "/" + type.name() + "]", type));
+            }
+        }
+
+        for (Rule rule : RULES) {
+            rule.id = patternId(rule.marker);
+
+            for (Rule exception : rule.exceptions) {
+                exception.id = patternId(exception.marker);
+            }
+        }
+
+        for (Signature signature : SIGNATURES) {
+            signature.id = patternId(signature.marker);
+        }
+
+        patternId(LOG4J);
+        patternId(LOG4J_EVENT_START);
+        patternId(LOG4J_EVENT_END);
+
+        matcher = new MultiPatternMatcher(patterns);
+    }
+
+    private static int patternId(String pattern) {
+        return patternIds.computeIfAbsent(pattern, p -> {
+            patterns.add(p);
+            return patterns.size() - 1;
+        });
+    }
+
+    /**
+     * Classifies a line of output.
+     *
+     * @param line             the line from Minecraft
+     * @param minecraftVersion the version of Minecraft being run, or null to skip version specific crash signatures
+     */
+    public static Classification classify(String line, String minecraftVersion) {
+        int[] first = new int[patterns.size()];
+        int[] last = new int[patterns.size()];
+        Arrays.fill(first, -1);
+
+        matcher.scan(line, (pattern, start) -> {
+            if (first[pattern] == -1) {
+                first[pattern] = start;
+            }
+
+            last[pattern] = start;
+            return true;
+        });
+
+        Classification classification = new Classification();
+        classification.type = LogType.INFO;
+        classification.message = line;
+
+        for (Rule rule : RULES) {
+            int index = first[rule.id];
+
+            if (index != -1) {
+                classification.type = rule.type;
+
+                if (!rule.wholeLine) {
+                    classification.message = line.substring(index);
+                }
+
+                for (Rule exception : rule.exceptions) {
+                    if (first[exception.id] != -1 && last[exception.id] >= index) {
+                        classification.type = exception.type;
+                        break;
+                    }
+                }
+
+                break;
+            }
+        }
+
+        for (Signature signature : SIGNATURES) {
+            if (first[signature.id] != -1 && (signature.upToVersion == null || (minecraftVersion != null
+                    && Utils.matchVersion(minecraftVersion, signature.upToVersion, true, true)))) {
+                classification.error = signature.error;
+            }
+        }
+
+        classification.log4j = first[patternIds.get(LOG4J)] != -1;
+        classification.log4jEventStart = first[patternIds.get(LOG4J_EVENT_START)] != -1;
+        classification.log4jEventEnd = first[patternIds.get(LOG4J_EVENT_END)] != -1;
+
+        return classification;
+    }
+
+    public static final class Classification {
+        public LogType type;
+        public String message;
+
+        /**
+         * The {@link MinecraftError} detected in the line, or 0 if there wasn't one.
+         */
+        public int error = 0;
+
+        public boolean log4j = false;
+        public boolean log4jEventStart = false;
+        public boolean log4jEventEnd = false;
+    }
+
+    private static final class Rule {
+        private final String marker;
+        private final LogType type;
+        private final List<Rule> exceptions = new ArrayList<>();
+        private boolean wholeLine = false;
+        private int id;
+
+        private Rule(String marker, LogType type) {
+            this.marker = marker;
+            this.type = type;
+        }
+
+        /**
+         * Uses a different level if the message (from this rule's marker onwards) contains the given marker.
+         */
+        private Rule unless(String marker, LogType type) {
+            exceptions.add(new Rule(marker, type));
+            return this;
+        }
+
+        private Rule wholeLine() {
+            wholeLine = true;
+            return this;
+        }
+    }
+
+    private static final class Signature {
+        private final String marker;
+        private final int error;
+        private String upToVersion = null;
+        private int id;
+
+        private Signature(String marker, int error) {
+            this.marker = marker;
+            this.error = error;
+        }
+
+        private Signature onlyUpTo(String version) {
+            upToVersion = version;
+            return this;
+        }
+    }
+}
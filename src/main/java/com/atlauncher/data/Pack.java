@@ -17,8 +17,9 @@
  */
 package com.atlauncher.data;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +38,7 @@ import com.atlauncher.data.technic.TechnicModpack;
 import com.atlauncher.managers.AccountManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PackManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.utils.Utils;
 
 public class Pack {
@@ -90,11 +92,15 @@ public class Pack {
     }
 
     public ImageIcon getImage() {
-        File imageFile = FileSystem.IMAGES.resolve(getSafeName().toLowerCase() + ".png").toFile();
-        if (!imageFile.exists()) {
-            return Utils.getIconImage("/assets/image/default-image.png");
+        Path imageFile = FileSystem.IMAGES.resolve(getSafeName().toLowerCase() + ".png");
+        if (Files.exists(imageFile)) {
+            ImageIcon image = ThumbnailManager.getThumbnail(imageFile, 300, 150, ThumbnailManager.Scaling.STRETCH);
+
+            if (image != null) {
+                return image;
+            }
         }
-        return Utils.getIconImage(imageFile);
+        return Utils.getIconImage("/assets/image/default-image.png");
     }
 
     public boolean isPublic() {
@@ -17,9 +17,6 @@
  */
 package com.atlauncher.data;
 
-import java.awt.Image;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -30,7 +27,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
 import com.atlauncher.App;
@@ -45,6 +41,7 @@ import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PackManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.OS;
@@ -310,22 +307,25 @@ public class Server {
     }
 
     public ImageIcon getImage() {
-        File customImage = this.getRoot().resolve("server.png").toFile();
-
-        if (customImage.exists()) {
-            try {
-                BufferedImage img = ImageIO.read(customImage);
-                Image dimg = img.getScaledInstance(300, 150, Image.SCALE_SMOOTH);
-                return new ImageIcon(dimg);
-            } catch (IOException e) {
-                LogManager.logStackTrace("Error creating scaled image from the custom image of server " + this.name, e);
+        Path customImage = this.getRoot().resolve("server.png");
+
+        if (Files.exists(customImage)) {
+            ImageIcon image = ThumbnailManager.getThumbnail(customImage, 300, 150, ThumbnailManager.Scaling.STRETCH);
+
+            if (image != null) {
+                return image;
             }
         }
 
         if (getPack() != null) {
-            File instancesImage = FileSystem.IMAGES.resolve(this.getSafePackName().toLowerCase() + ".png").toFile();
-            if (instancesImage.exists()) {
-                return Utils.getIconImage(instancesImage);
+            Path instancesImage = FileSystem.IMAGES.resolve(this.getSafePackName().toLowerCase() + ".png");
+            if (Files.exists(instancesImage)) {
+                ImageIcon image = ThumbnailManager.getThumbnail(instancesImage, 300, 150,
+                        ThumbnailManager.Scaling.STRETCH);
+
+                if (image != null) {
+                    return image;
+                }
             }
         }
 
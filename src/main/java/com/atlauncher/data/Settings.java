@@ -117,6 +117,7 @@ public class Settings {
     // Backups
     public boolean enableAutomaticBackupAfterLaunch = false;
     public BackupMode backupMode = BackupMode.NORMAL;
+    public int backupsToKeep = 10;
 
     // Commands
     public boolean enableCommands = false;
@@ -300,6 +301,8 @@ public class Settings {
 
         validateConcurrentConnections();
 
+        validateBackupsToKeep();
+
         validateDateFormat();
 
         validateInstanceTitleFormat();
@@ -466,6 +469,14 @@ public class Settings {
         }
     }
 
+    private void validateBackupsToKeep() {
+        if (backupsToKeep < 1) {
+            LogManager.warn("Tried to set the number of backups to keep to " + backupsToKeep
+                    + " which is not valid! Must be 1 or more. Setting back to default of 10!");
+            backupsToKeep = 10;
+        }
+    }
+
     private void validateDateFormat() {
         if (!Arrays.asList(Constants.DATE_FORMATS).contains(dateFormat)) {
             LogManager.warn("Tried to set the date format to " + dateFormat + " which is not valid! Setting "
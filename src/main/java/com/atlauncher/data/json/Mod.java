@@ -30,6 +30,7 @@ import com.atlauncher.data.curseforge.CurseForgeFile;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -661,17 +662,17 @@ public class Mod {
             case jar:
             case forge:
                 if (installer.isServer && thisType == ModType.forge) {
-                    Utils.copyFile(fileLocation, installer.root.toFile());
+                    installFile(fileLocation, installer.root.toFile());
                     break;
                 } else if (installer.isServer && thisType == ModType.jar) {
                     Utils.unzip(fileLocation, installer.temp.resolve("jar").toFile());
                     break;
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("jarmods").toFile());
+                installFile(fileLocation, installer.root.resolve("jarmods").toFile());
                 break;
             case mcpc:
                 if (installer.isServer) {
-                    Utils.copyFile(fileLocation, installer.root.toFile());
+                    installFile(fileLocation, installer.root.toFile());
                     break;
                 }
                 break;
@@ -679,13 +680,13 @@ public class Mod {
                 if (!installer.root.resolve("texturepacks").toFile().exists()) {
                     installer.root.resolve("texturepacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("texturepacks").toFile());
+                installFile(fileLocation, installer.root.resolve("texturepacks").toFile());
                 break;
             case resourcepack:
                 if (!installer.root.resolve("resourcepacks").toFile().exists()) {
                     installer.root.resolve("resourcepacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("resourcepacks").toFile());
+                installFile(fileLocation, installer.root.resolve("resourcepacks").toFile());
                 break;
             case texturepackextract:
                 if (!installer.root.resolve("texturepacks").toFile().exists()) {
@@ -719,53 +720,53 @@ public class Mod {
                         installer.root.resolve(path).toFile().mkdirs();
                     }
 
-                    Utils.copyFile(fileLocation, installer.root.resolve(path).toFile());
+                    installFile(fileLocation, installer.root.resolve(path).toFile());
                 } else {
-                    Utils.copyFile(fileLocation, installer.root.resolve("mods").toFile());
+                    installFile(fileLocation, installer.root.resolve("mods").toFile());
                 }
                 break;
             case ic2lib:
                 if (!installer.root.resolve("mods/ic2").toFile().exists()) {
                     installer.root.resolve("mods/ic2").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/ic2").toFile());
+                installFile(fileLocation, installer.root.resolve("mods/ic2").toFile());
                 break;
             case flan:
                 if (!installer.root.resolve("Flan").toFile().exists()) {
                     installer.root.resolve("Flan").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("Flan").toFile());
+                installFile(fileLocation, installer.root.resolve("Flan").toFile());
                 break;
             case denlib:
                 if (!installer.root.resolve("mods/denlib").toFile().exists()) {
                     installer.root.resolve("mods/denlib").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/denlib").toFile());
+                installFile(fileLocation, installer.root.resolve("mods/denlib").toFile());
                 break;
             case depandency:
             case dependency:
                 if (!installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile().exists()) {
                     installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile().mkdirs();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile());
+                installFile(fileLocation, installer.root.resolve("mods/" + installer.minecraftVersion.id).toFile());
                 break;
             case plugins:
                 if (!installer.root.resolve("plugins").toFile().exists()) {
                     installer.root.resolve("plugins").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("plugins").toFile());
+                installFile(fileLocation, installer.root.resolve("plugins").toFile());
                 break;
             case coremods:
                 if (!installer.root.resolve("coremods").toFile().exists()) {
                     installer.root.resolve("coremods").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("coremods").toFile());
+                installFile(fileLocation, installer.root.resolve("coremods").toFile());
                 break;
             case shaderpack:
                 if (!installer.root.resolve("shaderpacks").toFile().exists()) {
                     installer.root.resolve("shaderpacks").toFile().mkdir();
                 }
-                Utils.copyFile(fileLocation, installer.root.resolve("shaderpacks").toFile());
+                installFile(fileLocation, installer.root.resolve("shaderpacks").toFile());
                 break;
             case extract:
                 File tempDirExtract = FileSystem.TEMP.resolve(getSafeName()).toFile();
@@ -848,6 +849,10 @@ public class Mod {
         }
     }
 
+    private void installFile(File from, File toDirectory) {
+        ModStoreManager.installFile(from.toPath(), toDirectory.toPath().resolve(from.getName()));
+    }
+
     public File getInstalledFile(InstanceInstaller installer) {
         ModType thisType;
         String file;
@@ -23,7 +23,6 @@ import javax.swing.UIManager;
 
 import com.atlauncher.App;
 import com.atlauncher.FileSystem;
-import com.atlauncher.gui.components.Console;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.Timestamper;
 
@@ -52,13 +51,11 @@ public final class LogEvent {
         this.meta = meta;
     }
 
-    public void post(Logger logger) {
-        if ((this.meta & CONSOLE) == CONSOLE) {
-            Console c = App.console.console;
-            c.setColor(this.type.color()).setBold(true).write("[" + Timestamper.now() + "] ");
-            c.setColor(UIManager.getColor("EditorPane.foreground")).setBold(false).write(this.body);
-        }
+    public boolean isForConsole() {
+        return (this.meta & CONSOLE) == CONSOLE;
+    }
 
+    public void postToLog4j(Logger logger) {
         if ((this.meta & LOG4J) == LOG4J) {
             switch (type) {
                 case WARN: {
@@ -80,7 +80,7 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         bottomBar = new ConsoleBottomBar();
 
         JScrollPane scrollPane = new JScrollPane(console, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
-                JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+                JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         add(scrollPane, BorderLayout.CENTER);
         add(bottomBar, BorderLayout.SOUTH);
         RelocalizationManager.addListener(this);
@@ -139,12 +139,12 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
     }
 
     /**
-     * Returns a string with the text currently in the console
+     * Returns a string with the text written to the console since it was last cleared
      *
      * @return String Console Text
      */
     public String getLog() {
-        return console.getText();
+        return console.getLog();
     }
 
     public void showKillMinecraft() {
@@ -163,7 +163,7 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
     }
 
     public void clearConsole() {
-        console.setText(null);
+        console.clear();
     }
 
     @Override
@@ -37,6 +37,7 @@ import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.App;
 import com.atlauncher.Gsons;
@@ -61,6 +62,7 @@ import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -102,6 +104,7 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
     private final JMenuItem normalBackupMenuItem = new JMenuItem(GetText.tr("Normal Backup"));
     private final JMenuItem normalPlusModsBackupMenuItem = new JMenuItem(GetText.tr("Normal + Mods Backup"));
     private final JMenuItem fullBackupMenuItem = new JMenuItem(GetText.tr("Full Backup"));
+    private final JMenuItem restoreBackupMenuItem = new JMenuItem(GetText.tr("Restore Backup"));
     private final DropDownButton backupButton = new DropDownButton(GetText.tr("Backup"), backupPopupMenu);
 
     private final JPopupMenu getHelpPopupMenu = new JPopupMenu();
@@ -130,7 +133,9 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
     public InstanceCard(Instance instance) {
         super(instance);
         this.instance = instance;
-        this.image = new ImagePanel(instance.getImage().getImage());
+        this.image = new ImagePanel(Utils.getIconImage("/assets/image/default-image.png").getImage());
+        ThumbnailManager.loadAsync(instance::getImage)
+                .thenAccept(icon -> SwingUtilities.invokeLater(() -> this.image.setImage(icon.getImage())));
         JSplitPane splitter = new JSplitPane();
         splitter.setLeftComponent(this.image);
         JPanel rightPanel = new JPanel();
@@ -276,6 +281,11 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
         fullBackupMenuItem.addActionListener(e -> instance.backup(BackupMode.FULL));
         backupPopupMenu.add(fullBackupMenuItem);
 
+        backupPopupMenu.addSeparator();
+
+        restoreBackupMenuItem.addActionListener(e -> instance.restoreBackup());
+        backupPopupMenu.add(restoreBackupMenuItem);
+
         setupEditInstanceButton();
     }
 
@@ -636,6 +646,7 @@ public class InstanceCard extends CollapsiblePanel implements RelocalizationList
         this.normalBackupMenuItem.setText(GetText.tr("Normal Backup"));
         this.normalPlusModsBackupMenuItem.setText(GetText.tr("Normal + Mods Backup"));
         this.fullBackupMenuItem.setText(GetText.tr("Full Backup"));
+        this.restoreBackupMenuItem.setText(GetText.tr("Restore Backup"));
         this.backupButton.setText(GetText.tr("Backup"));
 
         this.discordLinkMenuItem.setText(GetText.tr("Discord"));
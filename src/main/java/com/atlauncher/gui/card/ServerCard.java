@@ -35,6 +35,7 @@ import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.atlauncher.App;
@@ -47,6 +48,7 @@ import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.ServerManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -68,7 +70,9 @@ public class ServerCard extends CollapsiblePanel implements RelocalizationListen
     public ServerCard(Server server) {
         super(server);
         this.server = server;
-        this.image = new ImagePanel(server.getImage().getImage());
+        this.image = new ImagePanel(Utils.getIconImage("/assets/image/default-image.png").getImage());
+        ThumbnailManager.loadAsync(server::getImage)
+                .thenAccept(icon -> SwingUtilities.invokeLater(() -> this.image.setImage(icon.getImage())));
         JSplitPane splitter = new JSplitPane();
         splitter.setLeftComponent(this.image);
         JPanel rightPanel = new JPanel();
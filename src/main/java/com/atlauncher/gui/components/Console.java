@@ -18,108 +18,374 @@
 package com.atlauncher.gui.components;
 
 import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
-import javax.swing.JTextPane;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
-import javax.swing.text.AbstractDocument;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.BoxView;
-import javax.swing.text.ComponentView;
-import javax.swing.text.Element;
-import javax.swing.text.IconView;
-import javax.swing.text.LabelView;
-import javax.swing.text.ParagraphView;
-import javax.swing.text.SimpleAttributeSet;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledEditorKit;
-import javax.swing.text.View;
-import javax.swing.text.ViewFactory;
 
 import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.evnt.LogEvent.LogType;
+import com.atlauncher.utils.Timestamper;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 
+/**
+ * The launcher console, showing the newest log lines with only the rows on screen being drawn.
+ *
+ * Only the newest {@link #MAX_LINES} lines are kept in memory. Everything written to the console is also spooled to
+ * {@link #SPOOL_FILE} so the whole log can still be copied and uploaded.
+ */
 @SuppressWarnings("serial")
-public final class Console extends JTextPane {
-    private final SimpleAttributeSet attrs = new SimpleAttributeSet();
+public final class Console extends JList<Console.Line> {
+    public static final int MAX_LINES = Integer
+            .parseInt(System.getProperty("com.atlauncher.gui.components.Console.maxLines", "50000"));
+
+    private static final Path SPOOL_FILE = FileSystem.LOGS.resolve("console.log");
+
+    // lines written are only added to the list about once a frame
+    private static final int FRAME_MS = 16;
+
+    private final ConsoleModel model = new ConsoleModel(MAX_LINES);
+
+    // lines waiting to be added to the list, which is only done on the event dispatch thread
+    private final ArrayDeque<Line> pending = new ArrayDeque<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Timer flushTimer = new Timer(FRAME_MS, e -> flush());
+
+    private final Object spoolLock = new Object();
+    private CountingOutputStream spoolCount = null;
+    private Writer spool = null;
+    private boolean spoolFailed = false;
+    private long spoolClearedAt = 0;
+
+    private int widestLine = 0;
 
     public Console() {
-        this.setEditable(false);
-        this.setEditorKit(new WrapEditorKit());
+        super();
+        this.setModel(model);
+        this.setCellRenderer(new LineRenderer());
+        this.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        this.setBackground(UIManager.getColor("EditorPane.background"));
         this.setFont(App.THEME.getConsoleFont().deriveFont((float) UIManager.get("Console.fontSize")));
+
+        // fixed cell sizes mean the list never measures every line to lay itself out
+        FontMetrics metrics = this.getFontMetrics(this.getFont());
+        this.setFixedCellHeight(metrics.getHeight());
+        this.setFixedCellWidth(1);
+
+        flushTimer.setRepeats(false);
     }
 
-    public Console setColor(Color c) {
-        StyleConstants.setForeground(this.attrs, c);
-        return this;
+    /**
+     * Writes out a batch of log events. This can be called from any thread, and the lines are added to the list on the
+     * next frame.
+     */
+    public void write(List<LogEvent> events) {
+        String timestamp = "[" + Timestamper.now() + "] ";
+        List<Line> lines = new ArrayList<>();
+
+        for (LogEvent event : events) {
+            if (!event.isForConsole()) {
+                continue;
+            }
+
+            String[] bodyLines = event.body.replace("\t", "    ").split("\r?\n");
+            for (int i = 0; i < bodyLines.length; i++) {
+                lines.add(new Line(event.type, i == 0 ? timestamp : null, bodyLines[i]));
+            }
+        }
+
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        spool(timestamp, events);
+
+        synchronized (pending) {
+            for (Line line : lines) {
+                if (pending.size() == MAX_LINES) {
+                    pending.removeFirst();
+                }
+
+                pending.addLast(line);
+            }
+        }
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTimer.restart();
+        }
     }
 
-    public Console setBold(boolean b) {
-        StyleConstants.setBold(this.attrs, b);
-        return this;
+    private void flush() {
+        flushScheduled.set(false);
+
+        List<Line> lines;
+        synchronized (pending) {
+            lines = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        boolean following = isScrolledToBottom();
+
+        FontMetrics metrics = this.getFontMetrics(this.getFont());
+        FontMetrics boldMetrics = this.getFontMetrics(this.getFont().deriveFont(Font.BOLD));
+        int widest = widestLine;
+        for (Line line : lines) {
+            int width = metrics.stringWidth(line.text)
+                    + (line.timestamp == null ? 0 : boldMetrics.stringWidth(line.timestamp));
+            widest = Math.max(widest, width);
+        }
+
+        model.add(lines);
+
+        if (widest != widestLine) {
+            widestLine = widest;
+            this.setFixedCellWidth(widest + 10);
+        }
+
+        if (following) {
+            // wait for the scroll pane to catch up with the new size of the list
+            SwingUtilities.invokeLater(() -> this.ensureIndexIsVisible(model.getSize() - 1));
+        }
     }
 
-    @Override
-    public boolean getScrollableTracksViewportWidth() {
-        return true;
+    private boolean isScrolledToBottom() {
+        Rectangle visible = this.getVisibleRect();
+
+        return visible.y + visible.height >= this.getHeight() - this.getFixedCellHeight();
     }
 
-    public void write(String str) {
-        try {
-            this.getDocument().insertString(this.getDocument().getLength(), str, this.attrs);
-            this.setCaretPosition(this.getDocument().getLength());
-        } catch (BadLocationException ex) {
-            ex.printStackTrace(System.err);
+    private void spool(String timestamp, List<LogEvent> events) {
+        synchronized (spoolLock) {
+            if (spoolFailed) {
+                return;
+            }
+
+            try {
+                if (spool == null) {
+                    spoolCount = new CountingOutputStream(new FileOutputStream(SPOOL_FILE.toFile()));
+                    spool = new BufferedWriter(new OutputStreamWriter(spoolCount, StandardCharsets.UTF_8));
+                }
+
+                for (LogEvent event : events) {
+                    if (event.isForConsole()) {
+                        spool.write(timestamp);
+                        spool.write(event.body);
+                    }
+                }
+
+                spool.flush();
+            } catch (IOException e) {
+                // fall back to only what's in memory
+                spoolFailed = true;
+                e.printStackTrace(System.err);
+            }
         }
     }
-}
 
-// https://stackoverflow.com/a/13375811
-@SuppressWarnings("serial")
-class WrapEditorKit extends StyledEditorKit {
-    ViewFactory defaultFactory = new WrapColumnFactory();
+    /**
+     * Only shows lines of the given types, or all lines if null.
+     */
+    public void setLevelFilter(Set<LogType> types) {
+        model.setFilter(types == null ? null : line -> types.contains(line.type));
+        this.ensureIndexIsVisible(model.getSize() - 1);
+    }
 
-    public ViewFactory getViewFactory() {
-        return defaultFactory;
+    /**
+     * Selects the next line after the currently selected one containing the given text, ignoring case and wrapping
+     * around to the start.
+     *
+     * @return if a line was found
+     */
+    public boolean findNext(String query) {
+        int size = model.getSize();
+
+        if (query == null || query.isEmpty() || size == 0) {
+            return false;
+        }
+
+        int start = this.getMaxSelectionIndex() + 1;
+
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+
+            if (containsIgnoreCase(model.getElementAt(index).text, query)) {
+                this.setSelectedIndex(index);
+                this.ensureIndexIsVisible(index);
+                return true;
+            }
+        }
+
+        return false;
     }
 
-}
+    private static boolean containsIgnoreCase(String text, String query) {
+        for (int i = 0; i <= text.length() - query.length(); i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
 
-class WrapColumnFactory implements ViewFactory {
-    public View create(Element elem) {
-        String kind = elem.getName();
-        if (kind != null) {
-            switch (kind) {
-                case AbstractDocument.ContentElementName:
-                    return new WrapLabelView(elem);
-                case AbstractDocument.ParagraphElementName:
-                    return new ParagraphView(elem);
-                case AbstractDocument.SectionElementName:
-                    return new BoxView(elem, View.Y_AXIS);
-                case StyleConstants.ComponentElementName:
-                    return new ComponentView(elem);
-                case StyleConstants.IconElementName:
-                    return new IconView(elem);
+        return false;
+    }
+
+    /**
+     * The selected lines, or null if nothing is selected.
+     */
+    public String getSelectedText() {
+        List<Line> selected = this.getSelectedValuesList();
+
+        if (selected.isEmpty()) {
+            return null;
+        }
+
+        return selected.stream().map(Line::toString).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    /**
+     * Everything written to the console since it was last cleared.
+     */
+    public String getLog() {
+        synchronized (spoolLock) {
+            if (spool != null && !spoolFailed) {
+                try (InputStream stream = Files.newInputStream(SPOOL_FILE)) {
+                    ByteStreams.skipFully(stream, spoolClearedAt);
+                    return new String(ByteStreams.toByteArray(stream), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    e.printStackTrace(System.err);
+                }
             }
         }
 
-        // default to text display
-        return new LabelView(elem);
+        ConsoleModel.Lines lines = model.getAllLines();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            sb.append(lines.get(i)).append(System.lineSeparator());
+        }
+
+        return sb.toString();
     }
-}
 
-class WrapLabelView extends LabelView {
-    public WrapLabelView(Element elem) {
-        super(elem);
+    public void clear() {
+        synchronized (pending) {
+            pending.clear();
+        }
+
+        synchronized (spoolLock) {
+            if (spoolCount != null) {
+                spoolClearedAt = spoolCount.getCount();
+            }
+        }
+
+        model.clear();
+        this.clearSelection();
+        widestLine = 0;
+        this.setFixedCellWidth(1);
     }
 
-    public float getMinimumSpan(int axis) {
-        switch (axis) {
-            case View.X_AXIS:
-                return 0;
-            case View.Y_AXIS:
-                return super.getMinimumSpan(axis);
-            default:
-                throw new IllegalArgumentException("Invalid axis: " + axis);
+    public static final class Line {
+        public final LogType type;
+        public final String timestamp;
+        public final String text;
+
+        private Line(LogType type, String timestamp, String text) {
+            this.type = type;
+            this.timestamp = timestamp;
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return timestamp == null ? text : timestamp + text;
         }
     }
 
+    /**
+     * Draws a line straight onto the list, with the timestamp in bold in the colour of the line's log type.
+     */
+    private static final class LineRenderer extends JComponent implements ListCellRenderer<Line> {
+        private Line line;
+        private boolean selected;
+        private Color selectionBackground;
+        private Color foreground;
+        private Font boldFont;
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Line> list, Line value, int index,
+                boolean isSelected, boolean cellHasFocus) {
+            this.line = value;
+            this.selected = isSelected;
+            this.selectionBackground = list.getSelectionBackground();
+            this.foreground = isSelected ? list.getSelectionForeground()
+                    : UIManager.getColor("EditorPane.foreground");
+            if (getFont() != list.getFont()) {
+                this.setFont(list.getFont());
+                this.boldFont = list.getFont().deriveFont(Font.BOLD);
+            }
+
+            return this;
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(0, 0);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (selected) {
+                g.setColor(selectionBackground);
+                g.fillRect(0, 0, getWidth(), getHeight());
+            }
+
+            if (line == null) {
+                return;
+            }
+
+            int x = 2;
+            int y = g.getFontMetrics(getFont()).getAscent();
+
+            if (line.timestamp != null) {
+                g.setFont(boldFont);
+                g.setColor(line.type.color());
+                g.drawString(line.timestamp, x, y);
+                x += g.getFontMetrics(boldFont).stringWidth(line.timestamp);
+            }
+
+            g.setFont(getFont());
+            g.setColor(foreground);
+            g.drawString(line.text, x, y);
+        }
+    }
 }
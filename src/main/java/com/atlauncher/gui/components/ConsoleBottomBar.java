@@ -22,14 +22,19 @@ import java.awt.FlowLayout;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
 
 import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
+import com.atlauncher.evnt.LogEvent.LogType;
 import com.atlauncher.evnt.listener.RelocalizationListener;
 import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.gui.dialogs.ProgressDialog;
@@ -37,6 +42,8 @@ import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.thread.PasteUpload;
+import com.atlauncher.utils.ComboItem;
+import com.formdev.flatlaf.icons.FlatSearchIcon;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -47,6 +54,8 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
     private final JButton copyLogButton = new JButton(GetText.tr("Copy Log"));
     private final JButton uploadLogButton = new JButton(GetText.tr("Upload Log"));
     private final JButton killMinecraftButton = new JButton(GetText.tr("Kill Minecraft"));
+    private final JComboBox<ComboItem<Set<LogType>>> levelFilterComboBox = new JComboBox<>();
+    private final JTextField searchField = new JTextField(12);
 
     public ConsoleBottomBar() {
         this.addActionListeners(); // Setup Action Listeners
@@ -56,9 +65,15 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         leftSide.add(this.copyLogButton);
         leftSide.add(this.uploadLogButton);
         leftSide.add(this.killMinecraftButton);
+        leftSide.add(this.levelFilterComboBox);
+        leftSide.add(this.searchField);
 
         this.killMinecraftButton.setVisible(false);
 
+        this.setupLevelFilterItems();
+        this.searchField.putClientProperty("JTextField.placeholderText", GetText.tr("Search"));
+        this.searchField.putClientProperty("JTextField.leadingIcon", new FlatSearchIcon());
+
         this.add(leftSide, BorderLayout.WEST);
 
         RelocalizationManager.addListener(this);
@@ -114,6 +129,19 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
                 LogManager.error("Log failed to upload: " + result);
             }
         });
+        levelFilterComboBox.addActionListener(e -> {
+            @SuppressWarnings("unchecked")
+            ComboItem<Set<LogType>> selected = (ComboItem<Set<LogType>>) levelFilterComboBox.getSelectedItem();
+
+            if (selected != null && App.console != null) {
+                App.console.console.setLevelFilter(selected.getValue());
+            }
+        });
+        searchField.addActionListener(e -> {
+            if (App.console != null && !App.console.console.findNext(searchField.getText())) {
+                Toolkit.getDefaultToolkit().beep();
+            }
+        });
         killMinecraftButton.addActionListener(arg0 -> {
             int ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Kill Minecraft") + "?")
                     .setContent(new HTMLBuilder().center().text(GetText.tr(
@@ -128,6 +156,17 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         });
     }
 
+    private void setupLevelFilterItems() {
+        int selectedIndex = Math.max(levelFilterComboBox.getSelectedIndex(), 0);
+
+        levelFilterComboBox.removeAllItems();
+        levelFilterComboBox.addItem(new ComboItem<>(null, GetText.tr("All Levels")));
+        levelFilterComboBox.addItem(new ComboItem<>(EnumSet.of(LogType.WARN, LogType.ERROR),
+                GetText.tr("Warnings And Errors")));
+        levelFilterComboBox.addItem(new ComboItem<>(EnumSet.of(LogType.ERROR), GetText.tr("Errors")));
+        levelFilterComboBox.setSelectedIndex(selectedIndex);
+    }
+
     public void showKillMinecraft() {
         killMinecraftButton.setVisible(true);
     }
@@ -146,5 +185,7 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         copyLogButton.setText(GetText.tr("Copy Log"));
         uploadLogButton.setText(GetText.tr("Upload Log"));
         killMinecraftButton.setText(GetText.tr("Kill Minecraft"));
+        searchField.putClientProperty("JTextField.placeholderText", GetText.tr("Search"));
+        setupLevelFilterItems();
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.gui.components;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.swing.AbstractListModel;
+
+import com.atlauncher.gui.components.Console.Line;
+
+/**
+ * The lines shown in the {@link Console}. Only the newest lines up to the given capacity are kept, with the oldest
+ * being dropped as new ones come in, and the lines can be filtered without copying them.
+ *
+ * Only to be used from the event dispatch thread.
+ */
+@SuppressWarnings("serial")
+final class ConsoleModel extends AbstractListModel<Line> {
+    private final Lines all;
+    private Lines filtered = null;
+    private Predicate<Line> filter = null;
+
+    ConsoleModel(int capacity) {
+        this.all = new Lines(capacity);
+    }
+
+    void add(List<Line> lines) {
+        Lines view = view();
+        int sizeBefore = view.size();
+        int removed = 0;
+        int added = 0;
+
+        for (Line line : lines) {
+            Line evicted = all.add(line);
+
+            if (filtered == null) {
+                removed += evicted == null ? 0 : 1;
+                added++;
+                continue;
+            }
+
+            // lines are in the same order in both, so the oldest filtered line is the only one that can be evicted
+            if (evicted != null && filtered.size() != 0 && filtered.get(0) == evicted) {
+                filtered.removeFirst();
+                removed++;
+            }
+
+            if (filter.test(line)) {
+                filtered.add(line);
+                added++;
+            }
+        }
+
+        if (removed > sizeBefore) {
+            // some of the new lines were evicted too, so just say everything changed
+            if (sizeBefore != 0) {
+                fireIntervalRemoved(this, 0, sizeBefore - 1);
+            }
+
+            if (view.size() != 0) {
+                fireIntervalAdded(this, 0, view.size() - 1);
+            }
+
+            return;
+        }
+
+        if (removed != 0) {
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+
+        if (added != 0) {
+            fireIntervalAdded(this, view.size() - added, view.size() - 1);
+        }
+    }
+
+    void clear() {
+        int size = view().size();
+
+        all.clear();
+
+        if (filtered != null) {
+            filtered.clear();
+        }
+
+        if (size != 0) {
+            fireIntervalRemoved(this, 0, size - 1);
+        }
+    }
+
+    /**
+     * Only shows lines matching the given filter, or all lines if null.
+     */
+    void setFilter(Predicate<Line> filter) {
+        int sizeBefore = view().size();
+
+        this.filter = filter;
+
+        if (filter == null) {
+            filtered = null;
+        } else {
+            filtered = new Lines(all.capacity());
+
+            for (int i = 0; i < all.size(); i++) {
+                if (filter.test(all.get(i))) {
+                    filtered.add(all.get(i));
+                }
+            }
+        }
+
+        if (sizeBefore != 0) {
+            fireIntervalRemoved(this, 0, sizeBefore - 1);
+        }
+
+        if (view().size() != 0) {
+            fireIntervalAdded(this, 0, view().size() - 1);
+        }
+    }
+
+    /**
+     * All the lines being kept, whether they're filtered out or not.
+     */
+    Lines getAllLines() {
+        return all;
+    }
+
+    @Override
+    public int getSize() {
+        return view().size();
+    }
+
+    @Override
+    public Line getElementAt(int index) {
+        return view().get(index);
+    }
+
+    private Lines view() {
+        return filtered == null ? all : filtered;
+    }
+
+    /**
+     * A fixed size circular array of lines.
+     */
+    static final class Lines {
+        private final Line[] lines;
+        private int head = 0;
+        private int size = 0;
+
+        Lines(int capacity) {
+            this.lines = new Line[capacity];
+        }
+
+        /**
+         * Adds a line, returning the oldest line if it had to be removed to make room.
+         */
+        Line add(Line line) {
+            Line evicted = null;
+
+            if (size == lines.length) {
+                evicted = removeFirst();
+            }
+
+            lines[(head + size) % lines.length] = line;
+            size++;
+
+            return evicted;
+        }
+
+        Line removeFirst() {
+            Line line = lines[head];
+            lines[head] = null;
+            head = (head + 1) % lines.length;
+            size--;
+
+            return line;
+        }
+
+        Line get(int index) {
+            return lines[(head + index) % lines.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return lines.length;
+        }
+
+        void clear() {
+            Arrays.fill(lines, null);
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -63,6 +63,7 @@ import com.atlauncher.gui.layouts.WrapLayout;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.CurseForgeApi;
@@ -617,6 +618,7 @@ public class EditModsDialog extends JDialog {
                 disabledMods.remove(mod);
             }
         }
+        ModStoreManager.garbageCollectInBackground();
         reloadPanels();
     }
 
@@ -27,10 +27,12 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.App;
 import com.atlauncher.interfaces.NetworkProgressable;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.DownloadProgress;
 import com.atlauncher.utils.Utils;
 
 import org.mini2Dx.gettext.GetText;
@@ -47,8 +49,16 @@ public class ProgressDialog<T> extends JDialog implements NetworkProgressable {
     private final JLabel label = new JLabel();
     private int tasksToDo;
     private int tasksDone;
-    private double totalBytes = 0; // Total number of bytes to download
-    private double downloadedBytes = 0; // Total number of bytes downloaded
+    private final DownloadProgress downloadProgress = new DownloadProgress((downloadedBytes, totalBytes) -> {
+        if (totalBytes > 0L) {
+            SwingUtilities.invokeLater(() -> {
+                // may have been cleared while this was waiting to run
+                if (this.downloadProgress.isReporting()) {
+                    updateProgressBar(downloadedBytes, totalBytes);
+                }
+            });
+        }
+    });
 
     public ProgressDialog(String title, int initMax, String initLabelText, String initClosedLogMessage,
             boolean showProgressBar, Window parent) {
@@ -139,12 +149,20 @@ public class ProgressDialog<T> extends JDialog implements NetworkProgressable {
     }
 
     public void doneTask() {
-        this.progressBar.setString(++this.tasksDone + "/" + tasksToDo + " " + GetText.tr("Tasks Done"));
-        this.progressBar.setValue(this.tasksDone);
+        this.doneConcurrentTask();
         this.clearDownloadedBytes();
         this.label.setText(this.labelText);
     }
 
+    /**
+     * Marks a task as done without resetting the downloaded bytes, for when tasks run at the same time and add their
+     * bytes to the total rather than replacing it.
+     */
+    public synchronized void doneConcurrentTask() {
+        this.progressBar.setString(++this.tasksDone + "/" + tasksToDo + " " + GetText.tr("Tasks Done"));
+        this.progressBar.setValue(this.tasksDone);
+    }
+
     public void setReturnValue(T returnValue) {
         this.returnValue = returnValue;
     }
@@ -158,19 +176,26 @@ public class ProgressDialog<T> extends JDialog implements NetworkProgressable {
         dispose(); // Dispose the dialog
     }
 
+    @Override
+    public void dispose() {
+        // however the dialog is closed, stop the progress updates
+        downloadProgress.close();
+        super.dispose();
+    }
+
     public void setLabel(String text) {
         this.label.setText(text);
     }
 
-    private void updateProgressBar() {
+    private void updateProgressBar(long downloadedBytes, long totalBytes) {
         double progress;
-        if (this.totalBytes > 0) {
-            progress = (this.downloadedBytes / this.totalBytes) * 100.0;
+        if (totalBytes > 0) {
+            progress = ((double) downloadedBytes / totalBytes) * 100.0;
         } else {
             progress = 0.0;
         }
-        double done = this.downloadedBytes / 1024.0 / 1024.0;
-        double toDo = this.totalBytes / 1024.0 / 1024.0;
+        double done = downloadedBytes / 1024.0 / 1024.0;
+        double toDo = totalBytes / 1024.0 / 1024.0;
         if (done > toDo) {
             setSubProgress(100.0, String.format("%.2f MB", done));
         } else {
@@ -222,30 +247,27 @@ public class ProgressDialog<T> extends JDialog implements NetworkProgressable {
 
     @Override
     public void setTotalBytes(long bytes) {
-        this.downloadedBytes = 0L;
-        this.totalBytes = bytes;
+        downloadProgress.setTotalBytes(bytes);
 
-        subProgressBar.setVisible(bytes > 0L);
-
-        if (bytes > 0L) {
-            this.updateProgressBar();
+        if (bytes <= 0L) {
+            downloadProgress.stopReporting();
         }
+
+        subProgressBar.setVisible(bytes > 0L);
     }
 
     @Override
     public void addDownloadedBytes(long bytes) {
-        this.downloadedBytes += bytes;
-        this.updateProgressBar();
+        downloadProgress.addDownloadedBytes(bytes);
     }
 
     public void clearDownloadedBytes() {
-        this.downloadedBytes = 0L;
+        downloadProgress.clearDownloadedBytes();
         subProgressBar.setVisible(false);
     }
 
     @Override
     public void addBytesToDownload(long bytes) {
-        this.totalBytes += bytes;
-        this.updateProgressBar();
+        downloadProgress.addTotalBytes(bytes);
     }
 }
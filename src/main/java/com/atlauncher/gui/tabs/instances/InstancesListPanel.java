@@ -17,13 +17,29 @@
  */
 package com.atlauncher.gui.tabs.instances;
 
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.util.function.Predicate;
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
 
 import com.atlauncher.App;
 import com.atlauncher.constants.UIConstants;
@@ -34,31 +50,45 @@ import com.atlauncher.gui.card.InstanceCard;
 import com.atlauncher.gui.card.NilCard;
 import com.atlauncher.gui.tabs.InstancesTab;
 import com.atlauncher.managers.InstanceManager;
+import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.sort.InstanceSortingStrategy;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.mini2Dx.gettext.GetText;
 
+/**
+ * The list of instances in the Instances tab.
+ *
+ * Each instance gets a cheap placeholder row, and its {@link InstanceCard} is only built once the row is scrolled
+ * near the screen. Cards are kept between searches and sorts, up to a number set by the
+ * com.atlauncher.gui.tabs.instances.InstancesListPanel.maxCards system property, after which those furthest from
+ * being used again are thrown away and built again if needed.
+ */
 public final class InstancesListPanel extends JPanel
         implements InstancesSortEventListener, InstancesSearchEventListener, RelocalizationListener {
+    // the most built cards kept at once
+    private static final int MAX_CARDS = Integer
+            .parseInt(System.getProperty("com.atlauncher.gui.tabs.instances.InstancesListPanel.maxCards", "100"));
+
+    // searching and sorting is done off the ui thread, one at a time
+    private static final ExecutorService FILTER_EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("InstancesListPanel-filter").setDaemon(true).build());
+
     private static NilCard createNilCard() {
         return new NilCard(GetText.tr("There are no instances to display.\n\nInstall one from the Packs tab."));
     }
 
-    private static Stream<Instance> createInstanceStream(final Pattern searchPattern,
+    private static List<Instance> filterAndSort(final List<Instance> instances, final Pattern searchPattern,
             final InstanceSortingStrategy sortingStrategy) {
-        Stream<Instance> stream = InstanceManager.getInstancesSorted().stream();
+        Stream<Instance> stream = instances.stream();
         if (searchPattern != null) {
-            stream = stream.filter(createSearchFilter(searchPattern));
+            stream = stream.filter((val) -> searchPattern.matcher(val.launcher.name).find());
         }
 
         if (sortingStrategy != null) {
             stream = stream.sorted(sortingStrategy);
         }
-        return stream;
-    }
-
-    private static Predicate<Instance> createSearchFilter(final Pattern searchPattern) {
-        return (val) -> searchPattern.matcher(val.launcher.name).find();
+        return stream.collect(Collectors.toList());
     }
 
     private final NilCard nilCard = createNilCard();
@@ -66,6 +96,18 @@ public final class InstancesListPanel extends JPanel
     private InstanceSortingStrategy sortingStrategy = App.settings.defaultInstanceSorting;
     final InstancesTab parent;
 
+    // the instances sorted by name, which searches and sorts start from
+    private List<Instance> instances;
+    private final Map<Instance, CardSlot> slots = new HashMap<>();
+    // slots with a built card, least recently on screen first
+    private final Set<CardSlot> builtSlots = new LinkedHashSet<>();
+    private int estimatedCardHeight = 250;
+    private final ChangeListener viewportListener = e -> this.buildVisibleCards();
+
+    // bumped on every search/sort, so results which have been superseded are ignored
+    private int generation = 0;
+    private boolean buildingCards = false;
+
     public InstancesListPanel(final InstancesTab parent) {
         super(new GridBagLayout());
         this.parent = parent;
@@ -76,7 +118,57 @@ public final class InstancesListPanel extends JPanel
         RelocalizationManager.addListener(this);
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        if (this.getParent() instanceof JViewport) {
+            ((JViewport) this.getParent()).addChangeListener(this.viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (this.getParent() instanceof JViewport) {
+            ((JViewport) this.getParent()).removeChangeListener(this.viewportListener);
+        }
+
+        super.removeNotify();
+    }
+
+    /**
+     * Reloads the instances, throwing away any cards already built.
+     */
     public void loadInstances() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::loadInstances);
+            return;
+        }
+
+        this.instances = InstanceManager.getInstancesSorted();
+        this.builtSlots.forEach(CardSlot::unbuild);
+        this.builtSlots.clear();
+        this.slots.clear();
+        this.refresh();
+    }
+
+    private void refresh() {
+        final int refreshGeneration = ++this.generation;
+        final List<Instance> instances = this.instances;
+        final Pattern searchPattern = this.searchPattern;
+        final InstanceSortingStrategy sortingStrategy = this.sortingStrategy;
+
+        CompletableFuture.supplyAsync(() -> filterAndSort(instances, searchPattern, sortingStrategy), FILTER_EXECUTOR)
+                .whenComplete((result, e) -> SwingUtilities.invokeLater(() -> {
+                    if (e != null) {
+                        LogManager.logStackTrace("Failed to search and sort instances", e);
+                    } else if (refreshGeneration == this.generation) {
+                        this.show(result);
+                    }
+                }));
+    }
+
+    private void show(final List<Instance> instancesToShow) {
         this.removeAll();
 
         final GridBagConstraints gbc = new GridBagConstraints();
@@ -84,20 +176,76 @@ public final class InstancesListPanel extends JPanel
         gbc.weightx = 1.0;
         gbc.insets = UIConstants.FIELD_INSETS;
         gbc.fill = GridBagConstraints.BOTH;
-        createInstanceStream(this.searchPattern, this.sortingStrategy)
-                .forEach((val) -> {
-                    this.add(new InstanceCard(val), gbc);
-                    gbc.gridy++;
-                });
+
+        for (Instance instance : instancesToShow) {
+            this.add(this.slots.computeIfAbsent(instance, CardSlot::new), gbc);
+            gbc.gridy++;
+        }
 
         if (this.getComponentCount() == 0) {
             this.add(this.nilCard, gbc);
         }
 
-        this.validate();
+        this.revalidate();
         this.repaint();
         this.parent.validate();
         this.parent.repaint();
+
+        // wait until the rows have been laid out to see which are on screen
+        SwingUtilities.invokeLater(this::buildVisibleCards);
+    }
+
+    /**
+     * Builds the cards for rows on screen, or within a screen of it.
+     */
+    private void buildVisibleCards() {
+        if (this.buildingCards) {
+            return;
+        }
+
+        Rectangle visible = this.getVisibleRect();
+        if (visible.isEmpty()) {
+            return;
+        }
+
+        Rectangle area = new Rectangle(visible.x, visible.y - visible.height, visible.width, visible.height * 3);
+        boolean built = false;
+
+        this.buildingCards = true;
+        try {
+            for (Component component : this.getComponents()) {
+                if (component instanceof CardSlot && component.getBounds().intersects(area)) {
+                    CardSlot slot = (CardSlot) component;
+
+                    if (!slot.isBuilt()) {
+                        slot.build();
+                        built = true;
+                    }
+
+                    // move to the end, as the most recently on screen
+                    this.builtSlots.remove(slot);
+                    this.builtSlots.add(slot);
+                }
+            }
+
+            Iterator<CardSlot> iterator = this.builtSlots.iterator();
+            while (this.builtSlots.size() > MAX_CARDS && iterator.hasNext()) {
+                CardSlot slot = iterator.next();
+
+                if (slot.getParent() != this || !slot.getBounds().intersects(area)) {
+                    slot.unbuild();
+                    iterator.remove();
+                }
+            }
+        } finally {
+            this.buildingCards = false;
+        }
+
+        if (built) {
+            // built cards are rarely the estimated size, so check again once they've been laid out
+            this.revalidate();
+            SwingUtilities.invokeLater(this::buildVisibleCards);
+        }
     }
 
     public Pattern getSearchPattern() {
@@ -106,7 +254,7 @@ public final class InstancesListPanel extends JPanel
 
     public void setSearchPattern(final Pattern searchPattern) {
         this.searchPattern = searchPattern;
-        this.loadInstances();
+        this.refresh();
     }
 
     public InstanceSortingStrategy getSortingStrategy() {
@@ -115,7 +263,7 @@ public final class InstancesListPanel extends JPanel
 
     public void setSortingStrategy(final InstanceSortingStrategy sortingStrategy) {
         this.sortingStrategy = sortingStrategy;
-        this.loadInstances();
+        this.refresh();
     }
 
     @Override
@@ -132,4 +280,55 @@ public final class InstancesListPanel extends JPanel
     public void onRelocalization() {
         this.nilCard.setMessage(GetText.tr("There are no instances to display.\n\nInstall one from the Packs tab."));
     }
+
+    /**
+     * A row in the list, which holds the instance's card once it's been built.
+     */
+    @SuppressWarnings("serial")
+    private final class CardSlot extends JPanel {
+        private final Instance instance;
+        private InstanceCard card = null;
+        // the height of the card when it was last built, so throwing it away doesn't move the rows below
+        private int height = -1;
+
+        private CardSlot(Instance instance) {
+            super(new BorderLayout());
+            this.instance = instance;
+        }
+
+        private boolean isBuilt() {
+            return this.card != null;
+        }
+
+        private void build() {
+            this.card = new InstanceCard(this.instance);
+            this.add(this.card, BorderLayout.CENTER);
+            estimatedCardHeight = this.card.getPreferredSize().height;
+        }
+
+        private void unbuild() {
+            if (this.card == null) {
+                return;
+            }
+
+            this.height = this.card.getHeight() > 0 ? this.card.getHeight() : this.card.getPreferredSize().height;
+            this.remove(this.card);
+            RelocalizationManager.removeListener(this.card);
+            this.card = null;
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            if (this.card == null) {
+                return new Dimension(0, this.height == -1 ? estimatedCardHeight : this.height);
+            }
+
+            return super.getPreferredSize();
+        }
+
+        @Override
+        public Dimension getMinimumSize() {
+            return this.card == null ? this.getPreferredSize() : super.getMinimumSize();
+        }
+    }
 }
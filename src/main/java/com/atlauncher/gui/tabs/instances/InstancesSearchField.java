@@ -23,6 +23,9 @@ import java.awt.event.KeyListener;
 import java.util.regex.Pattern;
 
 import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import com.atlauncher.gui.tabs.InstancesTab;
 import com.atlauncher.network.Analytics;
@@ -31,12 +34,34 @@ import com.formdev.flatlaf.icons.FlatSearchIcon;
 import org.mini2Dx.gettext.GetText;
 
 public final class InstancesSearchField extends JTextField implements KeyListener {
+    // how long to wait after typing stops before searching
+    private static final int SEARCH_DELAY_MS = 250;
+
     private final InstancesTab parent;
+    private final Timer searchTimer;
 
     public InstancesSearchField(final InstancesTab parent) {
         super(16);
         this.parent = parent;
 
+        this.searchTimer = new Timer(SEARCH_DELAY_MS, e -> this.fireSearch(this));
+        this.searchTimer.setRepeats(false);
+        this.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
         this.setMaximumSize(new Dimension(190, 23));
         this.addKeyListener(this);
         this.putClientProperty("JTextField.placeholderText", GetText.tr("Search"));
@@ -44,6 +69,7 @@ public final class InstancesSearchField extends JTextField implements KeyListene
         this.putClientProperty("JTextField.showClearButton", true);
         this.putClientProperty("JTextField.clearCallback", (Runnable) () -> {
             setText("");
+            this.searchTimer.stop();
             this.parent.fireSearchEvent(new InstancesSearchEvent(this, null));
         });
     }
@@ -64,7 +90,13 @@ public final class InstancesSearchField extends JTextField implements KeyListene
     public void keyReleased(KeyEvent e) {
         if (e.getKeyChar() == KeyEvent.VK_ENTER) {
             Analytics.sendEvent(this.getText(), "Search", "Instance");
-            this.parent.fireSearchEvent(new InstancesSearchEvent(e.getSource(), this.getSearchPattern()));
+            this.fireSearch(e.getSource());
         }
     }
+
+    private void fireSearch(Object source) {
+        this.searchTimer.stop();
+        this.parent.fireSearchEvent(new InstancesSearchEvent(source,
+                this.getText().isEmpty() ? null : this.getSearchPattern()));
+    }
 }
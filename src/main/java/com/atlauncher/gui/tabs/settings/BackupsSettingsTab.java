@@ -21,6 +21,8 @@ import java.awt.GridBagConstraints;
 
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 
 import com.atlauncher.App;
 import com.atlauncher.constants.UIConstants;
@@ -34,6 +36,7 @@ import org.mini2Dx.gettext.GetText;
 public class BackupsSettingsTab extends AbstractSettingsTab {
     private final JComboBox<ComboItem<BackupMode>> backupMode;
     private final JCheckBox enableAutomaticBackupAfterLaunch;
+    private final JSpinner backupsToKeep;
 
     public BackupsSettingsTab() {
         // Backup mode
@@ -84,11 +87,30 @@ public class BackupsSettingsTab extends AbstractSettingsTab {
         enableAutomaticBackupAfterLaunch = new JCheckBox();
         enableAutomaticBackupAfterLaunch.setSelected(App.settings.enableAutomaticBackupAfterLaunch);
         add(enableAutomaticBackupAfterLaunch, gbc);
+
+        // Backups to keep
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover backupsToKeepLabel = new JLabelWithHover(GetText.tr("Backups To Keep") + ":", HELP_ICON,
+                GetText.tr("How many backups to keep for each instance. Older backups are removed automatically."));
+        add(backupsToKeepLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        SpinnerNumberModel backupsToKeepModel = new SpinnerNumberModel(App.settings.backupsToKeep, null, null, 1);
+        backupsToKeepModel.setMinimum(1);
+        backupsToKeep = new JSpinner(backupsToKeepModel);
+        add(backupsToKeep, gbc);
     }
 
     public void save() {
         App.settings.backupMode = ((ComboItem<BackupMode>) backupMode.getSelectedItem()).getValue();
         App.settings.enableAutomaticBackupAfterLaunch = enableAutomaticBackupAfterLaunch.isSelected();
+        App.settings.backupsToKeep = (Integer) backupsToKeep.getValue();
     }
 
     @Override
@@ -0,0 +1,403 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.BackupMode;
+import com.atlauncher.data.BackupSnapshot;
+import com.atlauncher.data.BackupSnapshot.BackupSnapshotFile;
+import com.atlauncher.data.Instance;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.ZipNameMapper;
+
+import org.zeroturnaround.zip.NameMapper;
+
+/**
+ * Manages the backup repository which instances are backed up into.
+ *
+ * Rather than zipping up the instance each time, files are split into fixed size chunks which are compressed and
+ * stored once by their SHA-1 hash under {@link FileSystem#BACKUP_CHUNKS}. Each backup is then just a snapshot listing
+ * the chunks that make up each file, so only data which has changed since the last backup needs to be stored. Fixed
+ * size chunks suit world saves well since region files are rewritten in place rather than shifted around.
+ */
+public class BackupManager {
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * Creates a new snapshot of the given instance.
+     *
+     * @return the snapshot, or null if the backup failed or was interrupted
+     */
+    public static synchronized BackupSnapshot createSnapshot(Instance instance, BackupMode backupMode) {
+        PerformanceManager.start("BackupManager.createSnapshot");
+
+        Path root = instance.getRoot();
+        NameMapper nameMapper = ZipNameMapper.getMapperForBackupMode(backupMode);
+
+        // done before reading the files, so the instance.json in the snapshot already has the id in it
+        Path snapshotsDirectory = getSnapshotsDirectory(instance, true);
+
+        // files which haven't changed since the last snapshot don't need to be read again
+        Map<String, BackupSnapshotFile> previousFiles = new HashMap<>();
+        List<BackupSnapshot> snapshots = getSnapshots(instance);
+        if (!snapshots.isEmpty()) {
+            snapshots.get(0).files.forEach(f -> previousFiles.put(f.path, f));
+        }
+
+        BackupSnapshot snapshot = new BackupSnapshot();
+        snapshot.instance = instance.launcher.name;
+        snapshot.time = new Date();
+        snapshot.backupMode = backupMode;
+
+        long bytesStored = 0L;
+        byte[] buffer = new byte[CHUNK_SIZE];
+
+        try {
+            for (Path file : getFiles(root, nameMapper)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    LogManager.warn("Backup of " + instance.launcher.name + " was interrupted");
+                    return null;
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+                BackupSnapshotFile snapshotFile = new BackupSnapshotFile();
+                snapshotFile.path = getName(root, file);
+                snapshotFile.size = attributes.size();
+                snapshotFile.modified = attributes.lastModifiedTime().toMillis();
+
+                BackupSnapshotFile previousFile = previousFiles.get(snapshotFile.path);
+                if (previousFile != null && previousFile.size == snapshotFile.size
+                        && previousFile.modified == snapshotFile.modified
+                        && previousFile.chunks.stream().allMatch(c -> Files.exists(getChunkPath(c)))) {
+                    snapshotFile.chunks = previousFile.chunks;
+                } else {
+                    try (InputStream inputStream = Files.newInputStream(file)) {
+                        int read;
+                        while ((read = readChunk(inputStream, buffer)) > 0) {
+                            String hash = Hashing.sha1(buffer, 0, read).toString();
+
+                            if (writeChunk(hash, buffer, read)) {
+                                bytesStored += read;
+                            }
+
+                            snapshotFile.chunks.add(hash);
+                        }
+                    }
+                }
+
+                snapshot.size += snapshotFile.size;
+                snapshot.files.add(snapshotFile);
+            }
+
+            Path snapshotPath = snapshotsDirectory.resolve(snapshot.time.getTime() + ".json");
+            FileUtils.createDirectory(snapshotPath.getParent());
+
+            Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            Files.write(tempPath, Gsons.DEFAULT_SLIM.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshot.path = snapshotPath;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to backup instance " + instance.launcher.name, e);
+            return null;
+        } finally {
+            PerformanceManager.end("BackupManager.createSnapshot");
+        }
+
+        LogManager.info(String.format("Backed up %d files (%d bytes) from %s, storing %d new bytes",
+                snapshot.files.size(), snapshot.size, instance.launcher.name, bytesStored));
+
+        return snapshot;
+    }
+
+    /**
+     * Gets all the snapshots for the given instance, newest first.
+     */
+    public static List<BackupSnapshot> getSnapshots(Instance instance) {
+        Path directory = getSnapshotsDirectory(instance, false);
+
+        if (directory == null || !Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(p -> p.getFileName().toString().endsWith(".json")).map(BackupManager::readSnapshot)
+                    .filter(s -> s != null).sorted(Comparator.comparing((BackupSnapshot s) -> s.time).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to list backups for " + instance.launcher.name, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Restores the instance to how it was when the given snapshot was taken. Files covered by the snapshot's backup
+     * mode which didn't exist at the time are removed.
+     *
+     * Changed files are first rebuilt in a temporary directory, checking every chunk against its hash, so if anything
+     * is missing or corrupt the instance is left as it was.
+     */
+    public static synchronized boolean restoreSnapshot(Instance instance, BackupSnapshot snapshot) {
+        Path root = instance.getRoot();
+        NameMapper nameMapper = ZipNameMapper.getMapperForBackupMode(snapshot.backupMode);
+        Path restoreDirectory = FileSystem.TEMP.resolve("restore-" + UUID.randomUUID().toString().replace("-", ""));
+
+        try {
+            Map<BackupSnapshotFile, Path> restoredFiles = new LinkedHashMap<>();
+            byte[] buffer = new byte[CHUNK_SIZE];
+
+            for (BackupSnapshotFile snapshotFile : snapshot.files) {
+                Path file = root.resolve(snapshotFile.path);
+
+                if (Files.isRegularFile(file) && Files.size(file) == snapshotFile.size
+                        && Files.getLastModifiedTime(file).toMillis() == snapshotFile.modified) {
+                    continue;
+                }
+
+                Path restoredFile = restoreDirectory.resolve(snapshotFile.path);
+                FileUtils.createDirectory(restoredFile.getParent());
+
+                try (OutputStream outputStream = Files.newOutputStream(restoredFile)) {
+                    for (String chunk : snapshotFile.chunks) {
+                        outputStream.write(buffer, 0, readStoredChunk(chunk, buffer));
+                    }
+                }
+
+                restoredFiles.put(snapshotFile, restoredFile);
+            }
+
+            Set<String> names = snapshot.files.stream().map(f -> f.path).collect(Collectors.toSet());
+
+            for (Path file : getFiles(root, nameMapper)) {
+                if (!names.contains(getName(root, file))) {
+                    Files.delete(file);
+                }
+            }
+
+            for (Map.Entry<BackupSnapshotFile, Path> restoredFile : restoredFiles.entrySet()) {
+                Path file = root.resolve(restoredFile.getKey().path);
+                FileUtils.createDirectory(file.getParent());
+
+                // the file may be a hardlink into the mod store, so replace it rather than writing through it
+                Files.move(restoredFile.getValue(), file, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(restoredFile.getKey().modified));
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to restore backup of " + instance.launcher.name, e);
+            return false;
+        } finally {
+            if (Files.isDirectory(restoreDirectory)) {
+                FileUtils.deleteDirectory(restoreDirectory);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all but the newest given number of snapshots for the instance, and then removes any chunks no longer
+     * used by any snapshot.
+     */
+    public static synchronized void pruneSnapshots(Instance instance, int snapshotsToKeep) {
+        List<BackupSnapshot> snapshots = getSnapshots(instance);
+
+        if (snapshots.size() <= snapshotsToKeep) {
+            return;
+        }
+
+        snapshots.subList(Math.max(0, snapshotsToKeep), snapshots.size()).forEach(s -> FileUtils.delete(s.path));
+
+        garbageCollect();
+    }
+
+    /**
+     * Removes chunks which aren't used by any snapshot of any instance.
+     */
+    public static synchronized void garbageCollect() {
+        if (!Files.isDirectory(FileSystem.BACKUP_CHUNKS)) {
+            return;
+        }
+
+        Set<String> used = new HashSet<>();
+
+        try (Stream<Path> stream = Files.walk(FileSystem.BACKUP_SNAPSHOTS)) {
+            List<Path> snapshotPaths = stream.filter(p -> p.getFileName().toString().endsWith(".json"))
+                    .collect(Collectors.toList());
+
+            for (Path snapshotPath : snapshotPaths) {
+                BackupSnapshot snapshot = readSnapshot(snapshotPath);
+
+                if (snapshot == null) {
+                    // don't risk removing chunks an unreadable snapshot might need
+                    return;
+                }
+
+                snapshot.files.forEach(f -> used.addAll(f.chunks));
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read backup snapshots", e);
+            return;
+        }
+
+        try (Stream<Path> stream = Files.walk(FileSystem.BACKUP_CHUNKS)) {
+            List<Path> unused = stream.filter(Files::isRegularFile)
+                    .filter(p -> !used.contains(p.getFileName().toString())).collect(Collectors.toList());
+
+            LogManager.debug("Removing " + unused.size() + " unused chunks from the backup repository");
+            unused.forEach(FileUtils::delete);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up backup repository", e);
+        }
+    }
+
+    private static List<Path> getFiles(Path root, NameMapper nameMapper) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream.filter(Files::isRegularFile).filter(p -> nameMapper.map(getName(root, p)) != null).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String getName(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static int readChunk(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        int read;
+
+        while (total < buffer.length && (read = inputStream.read(buffer, total, buffer.length - total)) != -1) {
+            total += read;
+        }
+
+        return total;
+    }
+
+    /**
+     * Reads the chunk from the repository into the buffer, checking it hasn't been corrupted.
+     *
+     * @return the length of the chunk
+     */
+    private static int readStoredChunk(String hash, byte[] buffer) throws IOException {
+        int read;
+
+        try (InputStream inputStream = new InflaterInputStream(Files.newInputStream(getChunkPath(hash)))) {
+            read = readChunk(inputStream, buffer);
+
+            if (inputStream.read() != -1 || !Hashing.sha1(buffer, 0, read).toString().equals(hash)) {
+                throw new IOException("Backup chunk " + hash + " is corrupt");
+            }
+        }
+
+        return read;
+    }
+
+    /**
+     * Writes the chunk to the repository if it's not already there.
+     *
+     * @return if the chunk was written
+     */
+    private static boolean writeChunk(String hash, byte[] buffer, int length) throws IOException {
+        Path chunkPath = getChunkPath(hash);
+
+        if (Files.exists(chunkPath)) {
+            return false;
+        }
+
+        FileUtils.createDirectory(chunkPath.getParent());
+
+        Path tempPath = chunkPath.resolveSibling(hash + ".tmp");
+        try (OutputStream outputStream = new DeflaterOutputStream(Files.newOutputStream(tempPath))) {
+            outputStream.write(buffer, 0, length);
+        }
+        Files.move(tempPath, chunkPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return true;
+    }
+
+    private static BackupSnapshot readSnapshot(Path path) {
+        try {
+            BackupSnapshot snapshot = Gsons.DEFAULT_SLIM.fromJson(
+                    new String(Files.readAllBytes(path), StandardCharsets.UTF_8),
+                    BackupSnapshot.class);
+
+            if (snapshot != null) {
+                snapshot.path = path;
+            }
+
+            return snapshot;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read backup snapshot " + path, e, false);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the directory the instance's snapshots are kept in. This is keyed by an id kept in the instance's
+     * instance.json rather than its name, so backups are kept when it's renamed.
+     *
+     * @param create if the instance should be given an id if it doesn't have one yet
+     * @return the directory, or null if the instance has no id and one wasn't created
+     */
+    private static Path getSnapshotsDirectory(Instance instance, boolean create) {
+        if (instance.launcher.backupId == null) {
+            if (!create) {
+                return null;
+            }
+
+            instance.launcher.backupId = UUID.randomUUID().toString().replace("-", "");
+            instance.save();
+        }
+
+        return FileSystem.BACKUP_SNAPSHOTS.resolve(instance.launcher.backupId);
+    }
+
+    private static Path getChunkPath(String hash) {
+        return FileSystem.BACKUP_CHUNKS.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.network.VerifiedFileIndex;
+import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.common.hash.HashCode;
+
+/**
+ * Cache of combined minecraft.jar files for instances which add a modpack.jar on top of Minecraft's client jar.
+ *
+ * Combined jars are stored under {@link FileSystem#CUSTOM_MINECRAFT_JARS} keyed by the hashes of the jars they're
+ * made from, so they're only built again when one of those changes.
+ */
+public class CustomJarManager {
+    // combined jars not used by a launch in this long are removed
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    /**
+     * Puts the combined jar at the given path, linking it from the cache where possible.
+     */
+    public static void installCombinedJar(Path mainJar, Path jarToAdd, Path to) throws IOException {
+        Path combined = getCombinedJar(mainJar, jarToAdd);
+
+        if (Files.exists(to)) {
+            if (Files.isSameFile(combined, to)) {
+                return;
+            }
+
+            Files.delete(to);
+        }
+
+        try {
+            Files.createLink(to, combined);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            Files.copy(combined, to);
+        }
+    }
+
+    private static Path getCombinedJar(Path mainJar, Path jarToAdd) throws IOException {
+        HashCode mainJarHash = VerifiedFileIndex.sha1(mainJar);
+        HashCode jarToAddHash = VerifiedFileIndex.sha1(jarToAdd);
+
+        if (mainJarHash.equals(Hashing.EMPTY_HASH_CODE) || jarToAddHash.equals(Hashing.EMPTY_HASH_CODE)) {
+            throw new IOException("Failed to hash " + mainJar + " and " + jarToAdd);
+        }
+
+        Path combined = FileSystem.CUSTOM_MINECRAFT_JARS.resolve(mainJarHash + "-" + jarToAddHash + ".jar");
+
+        if (Files.exists(combined)) {
+            // mark as used so it isn't garbage collected
+            Files.setLastModifiedTime(combined, FileTime.fromMillis(System.currentTimeMillis()));
+            return combined;
+        }
+
+        LogManager.debug("Combining " + mainJar + " and " + jarToAdd + " into " + combined);
+        FileUtils.createDirectory(FileSystem.CUSTOM_MINECRAFT_JARS);
+
+        Path temp = combined.resolveSibling(combined.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        if (!ArchiveUtils.combineJars(mainJar, jarToAdd, temp)) {
+            Files.deleteIfExists(temp);
+            throw new IOException("Failed to combine jars into custom minecraft.jar");
+        }
+
+        try {
+            Files.move(temp, combined, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // another launch combined the same jars first
+            Files.deleteIfExists(temp);
+
+            if (!Files.exists(combined)) {
+                throw e;
+            }
+        }
+
+        garbageCollect();
+
+        return combined;
+    }
+
+    /**
+     * Removes combined jars which haven't been used by a launch in a while.
+     */
+    public static synchronized void garbageCollect() {
+        if (!Files.isDirectory(FileSystem.CUSTOM_MINECRAFT_JARS)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - MAX_AGE;
+
+        try (Stream<Path> stream = Files.list(FileSystem.CUSTOM_MINECRAFT_JARS)) {
+            List<Path> old = stream.filter(Files::isRegularFile).filter(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).collect(Collectors.toList());
+
+            if (!old.isEmpty()) {
+                LogManager.debug("Removing " + old.size() + " unused combined minecraft.jar files");
+            }
+
+            old.forEach(FileUtils::delete);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up combined minecraft.jar cache", e);
+        }
+    }
+}
@@ -20,9 +20,12 @@ package com.atlauncher.managers;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.atlauncher.App;
 import com.atlauncher.Data;
@@ -47,78 +50,112 @@ public class InstanceManager {
     }
 
     /**
-     * Loads the user installed Instances
+     * Loads the user installed Instances. Each instance.json is parsed in parallel, and anything needing the network
+     * to convert old instances is left to run in the background once loading has finished.
      */
     public static void loadInstances() {
         PerformanceManager.start();
         LogManager.debug("Loading instances");
         Data.INSTANCES.clear();
 
-        for (String folder : Optional.of(FileSystem.INSTANCES.toFile().list(Utils.getInstanceFileFilter()))
-                .orElse(new String[0])) {
-            File instanceDir = FileSystem.INSTANCES.resolve(folder).toFile();
+        List<Instance> instances = Arrays
+                .stream(Optional.ofNullable(FileSystem.INSTANCES.toFile().list(Utils.getInstanceFileFilter()))
+                        .orElse(new String[0]))
+                .parallel().map(folder -> loadInstance(FileSystem.INSTANCES.resolve(folder).toFile()))
+                .filter(Objects::nonNull).collect(Collectors.toList());
 
-            Instance instance = null;
+        Data.INSTANCES.addAll(instances);
 
-            try {
-                try (FileReader fileReader = new FileReader(new File(instanceDir, "instance.json"))) {
-                    instance = Gsons.MINECRAFT.fromJson(fileReader, Instance.class);
-                    instance.ROOT = instanceDir.toPath();
-                    LogManager.debug("Loaded instance from " + instanceDir);
-
-                    if (instance.launcher == null) {
-                        instance = null;
-                        throw new JsonSyntaxException("Error parsing instance.json as Instance");
-                    }
-                } catch (JsonIOException | JsonSyntaxException e) {
-                    LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e);
-                    continue;
-                }
-
-                if (instance.launcher.curseForgeManifest != null
+        List<Instance> instancesToConvert = instances.stream()
+                .filter(instance -> instance.launcher.curseForgeManifest != null
                         && instance.launcher.curseForgeManifest.projectID != null
-                        && instance.launcher.curseForgeManifest.fileID != null) {
-                    LogManager.info(String.format("Converting instance \"%s\" CurseForge information",
-                            instance.launcher.name));
-                    instance.launcher.curseForgeProject = CurseForgeApi
-                            .getProjectById(instance.launcher.curseForgeManifest.projectID);
-                    instance.launcher.curseForgeFile = CurseForgeApi.getFileForProject(
-                            instance.launcher.curseForgeManifest.projectID,
-                            instance.launcher.curseForgeManifest.fileID);
-                    instance.launcher.curseForgeManifest = null;
-
-                    instance.save();
-                }
+                        && instance.launcher.curseForgeManifest.fileID != null)
+                .collect(Collectors.toList());
+
+        if (!instancesToConvert.isEmpty()) {
+            App.TASKPOOL.execute(() -> convertCurseForgeInstances(instancesToConvert));
+        }
+
+        LogManager.debug("Finished loading instances");
+        PerformanceManager.end();
+    }
+
+    private static Instance loadInstance(File instanceDir) {
+        Instance instance;
 
-                if (instance.launcher.account != null
-                        && !AccountManager.isAccountByName(instance.launcher.account)) {
-                    LogManager.warn(
-                            String.format("No account with name of %s, so setting instance account back to default",
-                                    instance.launcher.account));
-                    instance.launcher.account = null;
-                    instance.save();
+        try {
+            try (FileReader fileReader = new FileReader(new File(instanceDir, "instance.json"))) {
+                instance = Gsons.MINECRAFT.fromJson(fileReader, Instance.class);
+                instance.ROOT = instanceDir.toPath();
+                LogManager.debug("Loaded instance from " + instanceDir);
+
+                if (instance.launcher == null) {
+                    throw new JsonSyntaxException("Error parsing instance.json as Instance");
                 }
+            } catch (JsonIOException | JsonSyntaxException e) {
+                LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e);
+                return null;
+            }
 
-                Data.INSTANCES.add(instance);
-            } catch (Exception e2) {
-                LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e2);
-                continue;
+            boolean needsSaving = false;
+
+            if (instance.launcher.account != null && !AccountManager.isAccountByName(instance.launcher.account)) {
+                LogManager.warn(String.format("No account with name of %s, so setting instance account back to default",
+                        instance.launcher.account));
+                instance.launcher.account = null;
+                needsSaving = true;
             }
-        }
 
-        // convert all old system instances into just a Vanilla instance
-        Data.INSTANCES.forEach(instance -> {
+            // convert all old system instances into just a Vanilla instance
             if (instance.getPack() != null && instance.getPack().system) {
                 instance.launcher.vanillaInstance = true;
                 instance.launcher.packId = 0;
                 instance.launcher.pack = "Minecraft";
+                needsSaving = true;
+            }
 
+            if (needsSaving) {
                 instance.save();
             }
-        });
 
-        LogManager.debug("Finished loading instances");
-        PerformanceManager.end();
+            return instance;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e);
+            return null;
+        }
+    }
+
+    /**
+     * Fills in the CurseForge project and file for instances which only have the old CurseForge manifest.
+     *
+     * This is run in the background, one at a time, so instances may have been reloaded or deleted by the time it gets
+     * to them. Those are skipped, as the instances loaded in their place are converted by their own run.
+     */
+    private static synchronized void convertCurseForgeInstances(List<Instance> instances) {
+        for (Instance instance : instances) {
+            try {
+                if (instance.launcher.curseForgeManifest == null || !Data.INSTANCES.contains(instance)) {
+                    continue;
+                }
+
+                LogManager.info(
+                        String.format("Converting instance \"%s\" CurseForge information", instance.launcher.name));
+                instance.launcher.curseForgeProject = CurseForgeApi
+                        .getProjectById(instance.launcher.curseForgeManifest.projectID);
+                instance.launcher.curseForgeFile = CurseForgeApi.getFileForProject(
+                        instance.launcher.curseForgeManifest.projectID, instance.launcher.curseForgeManifest.fileID);
+                instance.launcher.curseForgeManifest = null;
+
+                instance.save();
+            } catch (Exception e) {
+                LogManager.logStackTrace("Failed to convert CurseForge information for instance in the folder "
+                        + instance.getRoot(), e);
+            }
+        }
+
+        if (App.launcher != null) {
+            App.launcher.reloadInstancesPanel();
+        }
     }
 
     public static void setInstanceVisbility(Instance instance, boolean collapsed) {
@@ -137,6 +174,7 @@ public class InstanceManager {
     public static void removeInstance(Instance instance) {
         if (Data.INSTANCES.remove(instance)) {
             FileUtils.delete(instance.getRoot(), true);
+            ModStoreManager.removeReferences(instance.getRoot());
             App.launcher.reloadInstancesPanel();
         }
     }
@@ -199,9 +237,11 @@ public class InstanceManager {
             LogManager.error("Error Occurred While Cloning Instance! Instance Object Couldn't Be Cloned!");
         } else {
             clonedInstance.launcher.name = clonedName;
+            // backups of the original aren't backups of the clone
+            clonedInstance.launcher.backupId = null;
             clonedInstance.ROOT = FileSystem.INSTANCES.resolve(clonedInstance.getSafeName());
             FileUtils.createDirectory(clonedInstance.getRoot());
-            Utils.copyDirectory(instance.getRoot().toFile(), clonedInstance.getRoot().toFile());
+            ModStoreManager.cloneDirectory(instance.getRoot(), clonedInstance.getRoot());
             clonedInstance.save();
             Data.INSTANCES.add(clonedInstance);
             App.launcher.reloadInstancesPanel();
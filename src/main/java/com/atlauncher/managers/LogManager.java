@@ -20,12 +20,13 @@ package com.atlauncher.managers;
 import java.io.CharArrayWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+
+import javax.swing.SwingUtilities;
 
 import com.atlauncher.Gsons;
+import com.atlauncher.collection.RingBuffer;
+import com.atlauncher.collection.RingBuffer.OverflowPolicy;
+import com.atlauncher.data.MinecraftLogClassifier;
 import com.atlauncher.evnt.LogEvent;
 import com.atlauncher.evnt.LogEvent.LogType;
 import com.atlauncher.exceptions.LocalException;
@@ -36,20 +37,45 @@ import com.atlauncher.thread.LoggingThread;
 import com.atlauncher.utils.SystemOutInterceptor;
 
 public final class LogManager {
-    private static final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(128);
+    private static final int BUFFER_SIZE = Integer
+            .parseInt(System.getProperty("com.atlauncher.managers.LogManager.bufferSize", "8192"));
+    private static final OverflowPolicy OVERFLOW_POLICY = OverflowPolicy
+            .valueOf(System.getProperty("com.atlauncher.managers.LogManager.overflowPolicy", "BLOCK"));
+
+    private static volatile LoggingThread loggingThread;
+
+    // only wait for space when something is draining the queue, and never from the ui thread or the logging thread
+    // itself, else they could end up waiting on themselves
+    private static final RingBuffer<LogEvent> queue = new RingBuffer<>(BUFFER_SIZE, OVERFLOW_POLICY,
+            event -> event.type == LogType.ERROR,
+            () -> loggingThread != null && loggingThread.isAlive() && !SwingUtilities.isEventDispatchThread()
+                    && Thread.currentThread() != loggingThread);
     public static boolean showDebug = false;
 
-    private static final Pattern LOG4J_THREAD_REGEX = Pattern.compile("<log4j:Event.*?thread=\"(.*?)\".*?>");
-    private static final Pattern LOG4J_LEVEL_REGEX = Pattern.compile("<log4j:Event.*?level=\"(.*?)\".*?>");
-    private static final Pattern LOG4J_MESSAGE_REGEX = Pattern
-            .compile("<log4j:Message><!\\[CDATA\\[(.*?)\\]\\]></log4j:Message>");
+    private static final String LOG4J_MESSAGE_START = "<log4j:Message><![CDATA[";
+    private static final String LOG4J_MESSAGE_END = "]]></log4j:Message>";
 
     public static void start() {
-        new LoggingThread(queue).start();
+        loggingThread = new LoggingThread(queue);
+        loggingThread.start();
 
         redirectSystemOutLogs();
     }
 
+    /**
+     * The number of log events dropped because they were logged faster than they could be written out.
+     */
+    public static long getDroppedEvents() {
+        return queue.getDropped();
+    }
+
+    /**
+     * The number of log events waiting to be written out.
+     */
+    public static int getQueuedEvents() {
+        return queue.size();
+    }
+
     private static void redirectSystemOutLogs() {
         PrintStream origOut = System.out;
         PrintStream origErr = System.err;
@@ -93,8 +119,11 @@ public final class LogManager {
     }
 
     public static void minecraft(String message) {
-        Object[] value = prepareMessageForMinecraftLog(message);
-        queue.offer(new LogEvent((LogType) value[0], (String) value[1], LogEvent.CONSOLE));
+        minecraft(MinecraftLogClassifier.classify(message, null));
+    }
+
+    public static void minecraft(MinecraftLogClassifier.Classification line) {
+        queue.offer(new LogEvent(line.type, line.message, LogEvent.CONSOLE));
     }
 
     public static void logStackTrace(Throwable t) {
@@ -140,120 +169,48 @@ public final class LogManager {
         logStackTrace(t, sendRemote);
     }
 
-    public static Object[] prepareMessageForMinecraftLog(String text) {
-        LogType type; // The log message type
-        String message; // The log message
-
-        if (text.contains("[INFO] [STDERR]")) {
-            message = text.substring(text.indexOf("[INFO] [STDERR]"));
-            type = LogType.WARN;
-        } else if (text.contains("[INFO]")) {
-            message = text.substring(text.indexOf("[INFO]"));
-            if (message.contains("CONFLICT")) {
-                type = LogType.ERROR;
-            } else if (message.contains("overwriting existing item")) {
-                type = LogType.WARN;
-            } else {
-                type = LogType.INFO;
-            }
-        } else if (text.contains("[WARNING]")) {
-            message = text.substring(text.indexOf("[WARNING]"));
-            type = LogType.WARN;
-        } else if (text.contains("WARNING:")) {
-            message = text.substring(text.indexOf("WARNING:"));
-            type = LogType.WARN;
-        } else if (text.contains("INFO:")) {
-            message = text.substring(text.indexOf("INFO:"));
-            type = LogType.INFO;
-        } else if (text.contains("Exception")) {
-            message = text;
-            type = LogType.ERROR;
-        } else if (text.contains("[SEVERE]")) {
-            message = text.substring(text.indexOf("[SEVERE]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Sound Library Loader/ERROR]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Sound Library Loader/WARN]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Sound Library Loader/INFO]")) {
-            message = text.substring(text.indexOf("[Sound Library Loader/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[MCO Availability Checker #1/ERROR]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[MCO Availability Checker #1/WARN]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[MCO Availability Checker #1/INFO]")) {
-            message = text.substring(text.indexOf("[MCO Availability Checker #1/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[Client thread/ERROR]")) {
-            message = text.substring(text.indexOf("[Client thread/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Client thread/WARN]")) {
-            message = text.substring(text.indexOf("[Client thread/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Client thread/INFO]")) {
-            message = text.substring(text.indexOf("[Client thread/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[Server thread/ERROR]")) {
-            message = text.substring(text.indexOf("[Server thread/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[Server thread/WARN]")) {
-            message = text.substring(text.indexOf("[Server thread/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[Server thread/INFO]")) {
-            message = text.substring(text.indexOf("[Server thread/INFO]"));
-            type = LogType.INFO;
-        } else if (text.contains("[main/ERROR]")) {
-            message = text.substring(text.indexOf("[main/ERROR]"));
-            type = LogType.ERROR;
-        } else if (text.contains("[main/WARN]")) {
-            message = text.substring(text.indexOf("[main/WARN]"));
-            type = LogType.WARN;
-        } else if (text.contains("[main/INFO]")) {
-            message = text.substring(text.indexOf("[main/INFO]"));
-            type = LogType.INFO;
-        } else {
-            message = text;
-            type = LogType.INFO;
-        }
-
-        return new Object[] { type, message };
-    }
-
     public static void minecraftLog4j(String string) {
-        String thread = "";
+        int tagStart = string.indexOf("<log4j:Event");
+        int tagEnd = tagStart == -1 ? -1 : string.indexOf('>', tagStart);
+
+        String thread = getLog4jAttribute(string, "thread", tagStart, tagEnd);
+        String levelString = getLog4jAttribute(string, "level", tagStart, tagEnd);
         String message = "";
-        String levelString = "";
         LogType level = LogType.INFO;
 
-        Matcher threadMatcher = LOG4J_THREAD_REGEX.matcher(string);
-        if (threadMatcher.find()) {
-            thread = threadMatcher.group(1);
+        if (levelString.equalsIgnoreCase("ERROR") || levelString.equalsIgnoreCase("SEVERE")) {
+            level = LogType.ERROR;
+        } else if (levelString.equalsIgnoreCase("WARN")) {
+            level = LogType.WARN;
         }
 
-        Matcher levelMatcher = LOG4J_LEVEL_REGEX.matcher(string);
-        if (levelMatcher.find()) {
-            levelString = levelMatcher.group(1);
+        int messageStart = string.indexOf(LOG4J_MESSAGE_START);
+        if (messageStart != -1) {
+            messageStart += LOG4J_MESSAGE_START.length();
+            int messageEnd = string.indexOf(LOG4J_MESSAGE_END, messageStart);
 
-            if (levelString.equalsIgnoreCase("INFO")) {
-                level = LogType.INFO;
-            } else if (levelString.equalsIgnoreCase("ERROR") || levelString.equalsIgnoreCase("SEVERE")) {
-                level = LogType.ERROR;
-            } else if (levelString.equalsIgnoreCase("WARN")) {
-                level = LogType.WARN;
+            if (messageEnd != -1) {
+                message = string.substring(messageStart, messageEnd);
             }
         }
 
-        Matcher messageMatcher = LOG4J_MESSAGE_REGEX.matcher(string);
-        if (messageMatcher.find()) {
-            message = messageMatcher.group(1);
-        }
-
         queue.offer(new LogEvent(level, String.format("[%s/%s] %s", thread, levelString, message),
                 LogEvent.CONSOLE));
     }
+
+    private static String getLog4jAttribute(String string, String name, int tagStart, int tagEnd) {
+        if (tagStart == -1 || tagEnd == -1) {
+            return "";
+        }
+
+        int start = string.indexOf(" " + name + "=\"", tagStart);
+        if (start == -1 || start > tagEnd) {
+            return "";
+        }
+
+        start += name.length() + 3;
+        int end = string.indexOf('"', start);
+
+        return end == -1 || end > tagEnd ? "" : string.substring(start, end);
+    }
 }
@@ -0,0 +1,390 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.network.VerifiedFileIndex;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.common.hash.HashCode;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Content addressed store of mod files shared between all instances.
+ *
+ * Each unique file is stored once under {@link FileSystem#MOD_STORE_OBJECTS} by its SHA-1 hash, and files in
+ * instances are hardlinks to that object, falling back to a plain copy if the file system doesn't support linking
+ * (such as across drives). The paths linked to each object are tracked so that objects no longer used by any instance
+ * can be removed, which is checked when the launcher starts and after mods are removed or updated.
+ *
+ * Since instances share the object's inode, a mod changed in place in one instance is changed in all of them. Mods are
+ * only ever replaced (deleted and downloaded/linked again) by the launcher, which breaks the link rather than writing
+ * through it.
+ */
+public class ModStoreManager {
+    // objects not linked to anything are only removed once they're this old, so ones just added aren't removed before
+    // they're linked
+    private static final long UNREFERENCED_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    private static final Type refsType = new TypeToken<Map<String, Set<String>>>() {
+    }.getType();
+
+    // sha1 -> absolute paths of files in instances linked to that object
+    private static final Map<String, Set<String>> refs = new HashMap<>();
+    // absolute path -> sha1, built from the above for quick lookups
+    private static final Map<String, String> paths = new HashMap<>();
+
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    /**
+     * Installs the given file to the given path via the store.
+     *
+     * @param from the file to install, normally in the downloads folder
+     * @param to   the full path (including filename) to install the file to
+     * @return if the file was installed (linked or copied)
+     */
+    public static boolean installFile(Path from, Path to) {
+        if (!Files.isRegularFile(from)) {
+            LogManager.error("File " + from + " cannot be installed to " + to + " as it isn't a file!");
+            return false;
+        }
+
+        try {
+            Path object = getObject(from);
+
+            if (object != null) {
+                if (link(object, to)) {
+                    return true;
+                }
+
+                // linking isn't supported here, so don't keep a copy in the store nothing uses
+                removeIfUnreferenced(object);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to add " + from + " to the mod store", e, false);
+        }
+
+        return FileUtils.copyFile(from, to, true);
+    }
+
+    /**
+     * Copies a file from one instance to another (such as when cloning), linking it to the same object in the store
+     * if the file came from the store in the first place.
+     */
+    public static boolean cloneFile(Path from, Path to) {
+        String hash;
+
+        synchronized (ModStoreManager.class) {
+            load();
+            hash = paths.get(getKey(from));
+        }
+
+        if (hash != null) {
+            Path object = getObjectPath(hash);
+
+            try {
+                if (Files.exists(object) && Files.isSameFile(from, object) && link(object, to)) {
+                    return true;
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to link " + from + " from the mod store", e, false);
+            }
+        }
+
+        return FileUtils.copyFile(from, to, true);
+    }
+
+    /**
+     * Copies a directory from one instance to another (such as when cloning), linking any files which came from the
+     * store.
+     */
+    public static boolean cloneDirectory(Path from, Path to) {
+        try {
+            Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    FileUtils.createDirectory(to.resolve(from.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    cloneFile(file, to.resolve(from.relativize(file).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clone " + from + " to " + to, e);
+            return false;
+        }
+
+        save();
+
+        return true;
+    }
+
+    /**
+     * Removes all references to objects from files inside the given directory (such as an instance being deleted) and
+     * then removes any objects which are no longer referenced.
+     */
+    public static synchronized void removeReferences(Path directory) {
+        load();
+
+        String prefix = getKey(directory);
+
+        for (Set<String> objectRefs : refs.values()) {
+            if (objectRefs.removeIf(path -> Paths.get(path).startsWith(prefix))) {
+                dirty = true;
+            }
+        }
+
+        paths.keySet().removeIf(path -> Paths.get(path).startsWith(prefix));
+
+        garbageCollect();
+    }
+
+    /**
+     * Removes objects from the store which are no longer linked to from any instance. References to files which have
+     * since been deleted or replaced are dropped first.
+     */
+    public static synchronized void garbageCollect() {
+        load();
+
+        Iterator<Map.Entry<String, Set<String>>> iterator = refs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Set<String>> entry = iterator.next();
+            Path object = getObjectPath(entry.getKey());
+
+            if (entry.getValue().removeIf(path -> !isLinkedTo(Paths.get(path), object))) {
+                dirty = true;
+            }
+
+            if (entry.getValue().isEmpty()) {
+                LogManager.debug("Removing unused object " + entry.getKey() + " from the mod store");
+
+                if (Files.exists(object)) {
+                    FileUtils.delete(object);
+                }
+
+                iterator.remove();
+                dirty = true;
+            }
+        }
+
+        paths.entrySet().removeIf(e -> !refs.containsKey(e.getValue()));
+
+        // objects can also end up with no references at all, such as when linking failed or the launcher was closed
+        // part way through an install
+        if (Files.isDirectory(FileSystem.MOD_STORE_OBJECTS)) {
+            long cutoff = System.currentTimeMillis() - UNREFERENCED_MAX_AGE;
+
+            try (Stream<Path> stream = Files.walk(FileSystem.MOD_STORE_OBJECTS)) {
+                List<Path> unreferenced = stream.filter(Files::isRegularFile)
+                        .filter(p -> !refs.containsKey(p.getFileName().toString())).filter(p -> {
+                            try {
+                                return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                            } catch (IOException e) {
+                                return false;
+                            }
+                        }).collect(Collectors.toList());
+
+                if (!unreferenced.isEmpty()) {
+                    LogManager.debug("Removing " + unreferenced.size() + " unreferenced objects from the mod store");
+                }
+
+                unreferenced.forEach(FileUtils::delete);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to clean up the mod store", e, false);
+            }
+        }
+
+        save();
+    }
+
+    private static synchronized void removeIfUnreferenced(Path object) {
+        load();
+
+        if (!refs.containsKey(object.getFileName().toString())) {
+            FileUtils.delete(object);
+        }
+    }
+
+    /**
+     * Runs {@link #garbageCollect()} in the background, such as after mods have been removed or updated.
+     */
+    public static void garbageCollectInBackground() {
+        App.TASKPOOL.execute(() -> {
+            try {
+                garbageCollect();
+            } catch (Exception e) {
+                LogManager.logStackTrace("Failed to clean up the mod store", e, false);
+            }
+        });
+    }
+
+    public static synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+
+        FileUtils.createDirectory(FileSystem.MOD_STORE);
+
+        try (FileWriter fileWriter = new FileWriter(FileSystem.MOD_STORE_REFS.toFile())) {
+            Gsons.DEFAULT.toJson(refs, refsType, fileWriter);
+            dirty = false;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception saving mod store references", e);
+        }
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+
+        loaded = true;
+
+        if (Files.exists(FileSystem.MOD_STORE_REFS)) {
+            try (FileReader fileReader = new FileReader(FileSystem.MOD_STORE_REFS.toFile())) {
+                Map<String, Set<String>> savedRefs = Gsons.DEFAULT.fromJson(fileReader, refsType);
+
+                if (savedRefs != null) {
+                    refs.putAll(savedRefs);
+                }
+            } catch (Exception e) {
+                LogManager.logStackTrace("Exception loading mod store references", e);
+            }
+        }
+
+        refs.forEach((hash, objectRefs) -> objectRefs.forEach(path -> paths.put(path, hash)));
+    }
+
+    /**
+     * Gets the object in the store for the given file, adding it to the store if needed.
+     */
+    private static Path getObject(Path file) throws IOException {
+        HashCode hash = VerifiedFileIndex.sha1(file);
+
+        if (hash.equals(Hashing.EMPTY_HASH_CODE)) {
+            return null;
+        }
+
+        Path object = getObjectPath(hash.toString());
+
+        if (!Files.exists(object)) {
+            FileUtils.createDirectory(object.getParent());
+
+            // copy rather than link from the source so later changes to it can't affect the store
+            Path temp = object.resolveSibling(object.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // another thread added the same object first
+                Files.deleteIfExists(temp);
+
+                if (!Files.exists(object)) {
+                    throw e;
+                }
+            }
+        }
+
+        return object;
+    }
+
+    private static boolean link(Path object, Path to) {
+        try {
+            FileUtils.createDirectory(to.getParent());
+
+            if (Files.exists(to)) {
+                if (Files.isSameFile(object, to)) {
+                    addReference(object, to);
+                    return true;
+                }
+
+                Files.delete(to);
+            }
+
+            Files.createLink(to, object);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LogManager.debug("Couldn't link " + to + " to the mod store, copying instead: " + e.getMessage());
+            return false;
+        }
+
+        addReference(object, to);
+
+        return true;
+    }
+
+    private static synchronized void addReference(Path object, Path to) {
+        load();
+
+        String hash = object.getFileName().toString();
+        String key = getKey(to);
+
+        String oldHash = paths.put(key, hash);
+        if (oldHash != null && !oldHash.equals(hash) && refs.containsKey(oldHash)) {
+            refs.get(oldHash).remove(key);
+        }
+
+        if (refs.computeIfAbsent(hash, h -> new HashSet<>()).add(key)) {
+            dirty = true;
+        }
+    }
+
+    private static boolean isLinkedTo(Path path, Path object) {
+        try {
+            return Files.exists(path) && Files.exists(object) && Files.isSameFile(path, object);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path getObjectPath(String hash) {
+        return FileSystem.MOD_STORE_OBJECTS.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String getKey(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+}
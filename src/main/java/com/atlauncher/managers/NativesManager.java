@@ -0,0 +1,207 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.data.minecraft.ExtractRule;
+import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.OS;
+
+/**
+ * Cache of extracted natives shared between all instances.
+ *
+ * Each native jar is extracted once under {@link FileSystem#NATIVES_CACHE} keyed by the jar's SHA-1 hash and the
+ * rules for what to exclude from it. Each launch's natives directory is then made up of links to the files in the
+ * cache, falling back to a plain copy if the file system doesn't support linking.
+ */
+public class NativesManager {
+    // cache entries not used by a launch in this long are removed
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    /**
+     * Gets the directory in the cache with the given native jar extracted into it, extracting it first if needed.
+     *
+     * @param nativeJar the native jar in the libraries folder
+     * @param sha1      the SHA-1 hash of the native jar
+     * @param extract   the rules for what to exclude when extracting, if any
+     */
+    public static Path getExtracted(Path nativeJar, String sha1, ExtractRule extract) throws IOException {
+        Path entry = FileSystem.NATIVES_CACHE.resolve(getKey(sha1, extract));
+
+        if (Files.isDirectory(entry)) {
+            // mark as used so it isn't garbage collected
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        }
+
+        Path temp = entry.resolveSibling(entry.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        if (Files.exists(temp)) {
+            FileUtils.deleteDirectory(temp);
+        }
+
+        FileUtils.createDirectory(temp);
+
+        if (!ArchiveUtils.extract(nativeJar, temp, name -> {
+            if (extract != null && extract.shouldExclude(name)) {
+                return null;
+            }
+
+            return name;
+        })) {
+            FileUtils.deleteDirectory(temp);
+            throw new IOException("Failed to extract natives from " + nativeJar);
+        }
+
+        if (!OS.isWindows()) {
+            for (Path file : getFiles(temp)) {
+                file.toFile().setReadOnly();
+            }
+        }
+
+        try {
+            Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // another launch extracted the same natives first
+            FileUtils.deleteDirectory(temp);
+
+            if (!Files.isDirectory(entry)) {
+                throw e;
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Makes the given directory contain exactly the files from the given cache entries, linking to them where
+     * possible. Files already linked to the right entry are left alone.
+     *
+     * This removes and replaces files in the directory, so it must not be one a running game is using.
+     */
+    public static void assemble(List<Path> entries, Path directory) throws IOException {
+        FileUtils.createDirectory(directory);
+
+        Set<Path> expected = new HashSet<>();
+
+        for (Path entry : entries) {
+            for (Path file : getFiles(entry)) {
+                Path to = directory.resolve(entry.relativize(file).toString());
+                expected.add(to);
+
+                if (Files.exists(to)) {
+                    if (isUpToDate(to, file)) {
+                        continue;
+                    }
+
+                    Files.delete(to);
+                }
+
+                FileUtils.createDirectory(to.getParent());
+
+                try {
+                    Files.createLink(to, file);
+                } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                    Files.copy(file, to, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+
+        // remove anything left over from natives no longer used by the instance
+        for (Path file : getFiles(directory)) {
+            if (!expected.contains(file)) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Removes entries from the cache which haven't been used by a launch in a while. Launches already linked to them
+     * keep their own links, so this never breaks a running game.
+     */
+    public static synchronized void garbageCollect() {
+        if (!Files.isDirectory(FileSystem.NATIVES_CACHE)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - MAX_AGE;
+
+        try (Stream<Path> stream = Files.list(FileSystem.NATIVES_CACHE)) {
+            List<Path> old = stream.filter(Files::isDirectory).filter(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).collect(Collectors.toList());
+
+            if (!old.isEmpty()) {
+                LogManager.debug("Removing " + old.size() + " unused entries from the natives cache");
+            }
+
+            for (Path entry : old) {
+                if (!OS.isWindows()) {
+                    getFiles(entry).forEach(f -> f.toFile().setWritable(true));
+                }
+
+                FileUtils.deleteDirectory(entry);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up natives cache", e);
+        }
+    }
+
+    private static String getKey(String sha1, ExtractRule extract) {
+        if (extract == null || extract.exclude == null || extract.exclude.isEmpty()) {
+            return sha1;
+        }
+
+        return sha1 + "-" + Hashing.md5(extract.exclude.stream().sorted().collect(Collectors.joining("\n")))
+                .toString().substring(0, 8);
+    }
+
+    private static List<Path> getFiles(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            return stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    // copies keep the modified time of the file in the cache, so can be checked without reading them
+    private static boolean isUpToDate(Path file, Path cached) {
+        try {
+            return Files.isSameFile(file, cached) || (Files.size(file) == Files.size(cached)
+                    && Files.getLastModifiedTime(file).equals(Files.getLastModifiedTime(cached)));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
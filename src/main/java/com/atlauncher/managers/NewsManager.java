@@ -23,6 +23,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.atlauncher.Data;
@@ -48,9 +49,17 @@ public class NewsManager {
      * Loads the languages for use in the Launcher
      */
     public static void loadNews() {
+        setNews(readNews());
+    }
+
+    /**
+     * Reads the news without changing what's shown, so it can be done off the EDT and then set with
+     * {@link #setNews(List)} on it.
+     */
+    public static List<News> readNews() {
         PerformanceManager.start();
         LogManager.debug("Loading news");
-        Data.NEWS.clear();
+        List<News> news = new ArrayList<>();
         try {
             java.lang.reflect.Type type = new TypeToken<List<News>>() {
             }.getType();
@@ -58,13 +67,20 @@ public class NewsManager {
             BufferedReader in = new BufferedReader(
                     new InputStreamReader(new FileInputStream(fileDir), StandardCharsets.UTF_8));
 
-            Data.NEWS.addAll(Gsons.DEFAULT.fromJson(in, type));
+            news.addAll(Gsons.DEFAULT.fromJson(in, type));
             in.close();
         } catch (JsonIOException | JsonSyntaxException | IOException e) {
             LogManager.logStackTrace(e);
         }
         LogManager.debug("Finished loading news");
         PerformanceManager.end();
+
+        return news;
+    }
+
+    public static void setNews(List<News> news) {
+        Data.NEWS.clear();
+        Data.NEWS.addAll(news);
     }
 
     /**
@@ -264,6 +264,14 @@ public class PackManager {
      * Loads the Testers and Allowed Players for the packs in the Launcher
      */
     public static void loadUsers() {
+        setUsers(readUsers());
+    }
+
+    /**
+     * Reads the testers and allowed players for the packs without adding them, so it can be done off the EDT and then
+     * added with {@link #setUsers(List)} on it.
+     */
+    public static List<PackUsers> readUsers() {
         PerformanceManager.start();
         LogManager.debug("Loading users");
         List<PackUsers> packUsers = new ArrayList<>();
@@ -277,12 +285,16 @@ public class PackManager {
             LogManager.logStackTrace(e);
         }
 
+        LogManager.debug("Finished loading users");
+        PerformanceManager.end();
+
+        return packUsers;
+    }
+
+    public static void setUsers(List<PackUsers> packUsers) {
         for (PackUsers pu : packUsers) {
             pu.addUsers();
         }
-
-        LogManager.debug("Finished loading users");
-        PerformanceManager.end();
     }
 
     public static void removeUnusedImages() {
@@ -0,0 +1,276 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.network.VerifiedFileIndex;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Scaled down copies of images shown in the launcher, such as instance, pack and remote images.
+ *
+ * Thumbnails are stored under {@link FileSystem#THUMBNAILS} keyed by the hash of the source image and the size they
+ * were scaled to, so each image is only decoded at full size and scaled once. Recently used thumbnails are also kept
+ * in memory, up to a total size set by the com.atlauncher.managers.ThumbnailManager.maxMemoryMb system property.
+ */
+public class ThumbnailManager {
+    private static final long MAX_MEMORY_BYTES = Long
+            .parseLong(System.getProperty("com.atlauncher.managers.ThumbnailManager.maxMemoryMb", "64")) * 1024 * 1024;
+
+    // thumbnails not used in this long are removed
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())),
+            new ThreadFactoryBuilder().setNameFormat("ThumbnailManager-%d").setDaemon(true).build());
+
+    // guarded by itself, so lookups aren't held up by the garbage collection of the disk cache
+    private static final Map<String, ImageIcon> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private static long memoryBytes = 0;
+
+    private static final AtomicBoolean garbageCollected = new AtomicBoolean(false);
+
+    public enum Scaling {
+        /**
+         * Stretch the image to the size of the thumbnail.
+         */
+        STRETCH,
+
+        /**
+         * Stretch the image to the size of the thumbnail, unless it's square, in which case it's scaled to the height of
+         * the thumbnail and centered.
+         */
+        KEEP_SQUARES
+    }
+
+    /**
+     * Gets a thumbnail of the given image, creating it if needed.
+     *
+     * @return the thumbnail, or null if the image couldn't be read
+     */
+    public static ImageIcon getThumbnail(Path source, int width, int height, Scaling scaling) {
+        try {
+            HashCode hash = VerifiedFileIndex.sha1(source);
+
+            if (hash.equals(Hashing.EMPTY_HASH_CODE)) {
+                return null;
+            }
+
+            String key = hash + "-" + width + "x" + height + "-" + scaling.name().toLowerCase();
+
+            ImageIcon icon = getFromMemory(key);
+            if (icon != null) {
+                return icon;
+            }
+
+            icon = new ImageIcon(getFromDisk(key, source, width, height, scaling));
+            putInMemory(key, icon);
+
+            return icon;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Error creating thumbnail of " + source, e, false);
+            return null;
+        }
+    }
+
+    /**
+     * Gets a thumbnail of the given image without blocking, with any reading and scaling done on a small pool of
+     * threads.
+     */
+    public static CompletableFuture<ImageIcon> getThumbnailAsync(Path source, int width, int height,
+            Scaling scaling) {
+        return loadAsync(() -> getThumbnail(source, width, height, scaling));
+    }
+
+    /**
+     * Runs something which gets one or more thumbnails, such as {@link com.atlauncher.data.Instance#getImage()}, on
+     * the same small pool of threads.
+     */
+    public static CompletableFuture<ImageIcon> loadAsync(Supplier<ImageIcon> loader) {
+        return CompletableFuture.supplyAsync(loader, EXECUTOR);
+    }
+
+    private static BufferedImage getFromDisk(String key, Path source, int width, int height, Scaling scaling)
+            throws IOException {
+        Path thumbnail = FileSystem.THUMBNAILS.resolve(key + ".png");
+
+        if (Files.exists(thumbnail)) {
+            BufferedImage image = ImageIO.read(thumbnail.toFile());
+
+            if (image != null) {
+                // mark as used so it isn't garbage collected
+                Files.setLastModifiedTime(thumbnail, FileTime.fromMillis(System.currentTimeMillis()));
+                return image;
+            }
+        }
+
+        BufferedImage image = ImageIO.read(source.toFile());
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+
+        BufferedImage scaled = scale(image, width, height, scaling);
+        image.flush();
+
+        FileUtils.createDirectory(FileSystem.THUMBNAILS);
+        Path temp = thumbnail.resolveSibling(thumbnail.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        try {
+            ImageIO.write(scaled, "png", temp.toFile());
+            Files.move(temp, thumbnail, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // still usable, it just has to be made again next time
+            Files.deleteIfExists(temp);
+            LogManager.logStackTrace("Error saving thumbnail of " + source, e, false);
+        }
+
+        if (garbageCollected.compareAndSet(false, true)) {
+            EXECUTOR.execute(ThumbnailManager::garbageCollect);
+        }
+
+        return scaled;
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height, Scaling scaling) {
+        int drawX = 0;
+        int drawWidth = width;
+
+        if (scaling == Scaling.KEEP_SQUARES && image.getWidth() == image.getHeight()) {
+            drawWidth = height;
+            drawX = (width - height) / 2;
+        }
+
+        // halve the size until close to the target, as a single bicubic step loses a lot of detail when shrinking
+        // large images
+        Image current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        while (currentWidth / 2 >= drawWidth && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = draw(current, currentWidth, currentHeight, 0, currentWidth);
+        }
+
+        return draw(current, width, height, drawX, drawWidth);
+    }
+
+    private static BufferedImage draw(Image image, int width, int height, int x, int drawWidth) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g = result.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(image, x, 0, drawWidth, height, null);
+        g.dispose();
+
+        return result;
+    }
+
+    private static ImageIcon getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private static void putInMemory(String key, ImageIcon icon) {
+        synchronized (memory) {
+            ImageIcon old = memory.put(key, icon);
+
+            if (old != null) {
+                memoryBytes -= getBytes(old);
+            }
+
+            memoryBytes += getBytes(icon);
+
+            // remove the least recently used thumbnails until back under the limit
+            Iterator<ImageIcon> iterator = memory.values().iterator();
+            while (memoryBytes > MAX_MEMORY_BYTES && iterator.hasNext()) {
+                ImageIcon evicted = iterator.next();
+
+                if (evicted == icon) {
+                    break;
+                }
+
+                memoryBytes -= getBytes(evicted);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static long getBytes(ImageIcon icon) {
+        return 4L * icon.getIconWidth() * icon.getIconHeight();
+    }
+
+    /**
+     * Removes thumbnails which haven't been used in a while.
+     */
+    public static synchronized void garbageCollect() {
+        if (!Files.isDirectory(FileSystem.THUMBNAILS)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - MAX_AGE;
+
+        try (Stream<Path> stream = Files.list(FileSystem.THUMBNAILS)) {
+            List<Path> old = stream.filter(Files::isRegularFile).filter(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).collect(Collectors.toList());
+
+            if (!old.isEmpty()) {
+                LogManager.debug("Removing " + old.size() + " unused thumbnails");
+            }
+
+            old.forEach(FileUtils::delete);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up thumbnail cache", e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.minecraft.Library;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * The parts of an instance's launch command which only change when the instance does, such as the classpath and the
+ * jvm/game arguments after their rules have been applied. Arguments keep their placeholders, which are filled in on
+ * each launch.
+ *
+ * Plans are saved to {@link FileSystem#LAUNCH_PLANS} so they can be looked at when debugging, and are rebuilt when the
+ * fingerprint of the things they're made from changes.
+ */
+public class LaunchPlan {
+    public String fingerprint;
+    public boolean hasCustomJarMods = false;
+    public List<String> customLibraries = new ArrayList<>();
+    public String classpath;
+    public List<String> jvmArguments = new ArrayList<>();
+    public List<String> gameArguments = new ArrayList<>();
+
+    /**
+     * Gets the launch plan for the given instance, building and saving it if there isn't one or it's out of date.
+     */
+    public static LaunchPlan get(Instance instance, String javaPath) {
+        String fingerprint = getFingerprint(instance, javaPath);
+        Path planPath = getPath(instance);
+
+        if (Files.exists(planPath)) {
+            try (FileReader fileReader = new FileReader(planPath.toFile())) {
+                LaunchPlan plan = Gsons.DEFAULT.fromJson(fileReader, LaunchPlan.class);
+
+                if (plan != null && fingerprint.equals(plan.fingerprint)) {
+                    LogManager.debug("Using cached launch plan from " + planPath);
+                    return plan;
+                }
+            } catch (Exception e) {
+                LogManager.logStackTrace("Exception loading launch plan", e, false);
+            }
+        }
+
+        LaunchPlan plan = build(instance);
+        plan.fingerprint = fingerprint;
+
+        FileUtils.createDirectory(FileSystem.LAUNCH_PLANS);
+
+        try (FileWriter fileWriter = new FileWriter(planPath.toFile())) {
+            Gsons.DEFAULT.toJson(plan, fileWriter);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception saving launch plan", e, false);
+        }
+
+        return plan;
+    }
+
+    private static LaunchPlan build(Instance instance) {
+        LaunchPlan plan = new LaunchPlan();
+        Set<String> classpath = new LinkedHashSet<>();
+
+        for (File file : getFiles(instance.getJarModsDirectory())) {
+            plan.hasCustomJarMods = true;
+            classpath.add(file.getAbsolutePath());
+        }
+
+        instance.libraries.stream().filter(
+                library -> library.shouldInstall() && library.downloads.artifact != null && !library.hasNativeForOS())
+                .filter(library -> library.downloads.artifact != null && library.downloads.artifact.path != null)
+                .forEach(library -> classpath
+                        .add(FileSystem.LIBRARIES.resolve(library.downloads.artifact.path).toFile().getAbsolutePath()));
+
+        instance.libraries.stream().filter(Library::hasNativeForOS).forEach(library -> classpath.add(
+                FileSystem.LIBRARIES.resolve(library.getNativeDownloadForOS().path).toFile().getAbsolutePath()));
+
+        for (File file : getCustomLibraries(instance)) {
+            plan.customLibraries.add(file.getName());
+            classpath.add(file.getPath());
+        }
+
+        // add minecraft client jar last
+        if (instance.usesCustomMinecraftJar()) {
+            classpath.add(instance.getCustomMinecraftJar().getAbsolutePath());
+        } else {
+            classpath.add(instance.getMinecraftJar().getAbsolutePath());
+        }
+
+        if (instance.usesLegacyLaunch()) {
+            classpath.add(getLauncherPath());
+        }
+
+        plan.classpath = String.join(File.pathSeparator, classpath);
+
+        plan.jvmArguments = instance.arguments.jvmAsStringList().stream()
+                .filter(argument -> !MCLauncher.IGNORED_ARGUMENTS.contains(argument)).collect(Collectors.toList());
+
+        if (!instance.usesLegacyLaunch()) {
+            plan.gameArguments = instance.arguments.gameAsStringList().stream()
+                    .filter(argument -> !MCLauncher.IGNORED_ARGUMENTS.contains(argument)).collect(Collectors.toList());
+        }
+
+        return plan;
+    }
+
+    /**
+     * What the plan is built from. The libraries and arguments only change when the instance is installed, updated or
+     * has its loader changed, so the versions and a few cheap summaries of them are used rather than serialising them
+     * all on every launch. The instance.json's modified time can't be used since the play count is saved to it right
+     * before launching.
+     */
+    private static String getFingerprint(Instance instance, String javaPath) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(instance.id).append('\n').append(instance.getLoaderVersion());
+        sb.append('\n').append(instance.launcher.version).append('\n').append(instance.launcher.hash);
+        sb.append('\n').append(instance.libraries.size());
+
+        // names include the version, so this also catches libraries swapped in place, like the log4j fix does
+        for (Library library : instance.libraries) {
+            sb.append('\n').append(library.name);
+        }
+
+        if (instance.arguments != null) {
+            sb.append('\n').append(instance.arguments.jvm == null ? 0 : instance.arguments.jvm.size());
+            sb.append('\n').append(instance.arguments.game == null ? 0 : instance.arguments.game.size());
+        }
+
+        sb.append('\n').append(javaPath);
+        sb.append('\n').append(instance.usesLegacyLaunch()).append('\n').append(instance.usesCustomMinecraftJar());
+        sb.append('\n').append(getLauncherPath());
+        // the plan holds absolute paths, so it's stale if the launcher or instance has been moved
+        sb.append('\n').append(FileSystem.BASE_DIR.toAbsolutePath());
+        sb.append('\n').append(instance.getRoot().toAbsolutePath());
+
+        for (File file : getFiles(instance.getJarModsDirectory())) {
+            sb.append('\n').append(file.getName()).append(':').append(file.lastModified());
+        }
+
+        for (File file : getCustomLibraries(instance)) {
+            sb.append('\n').append(file.getName()).append(':').append(file.lastModified());
+        }
+
+        return Hashing.md5(sb.toString()).toString();
+    }
+
+    private static List<File> getCustomLibraries(Instance instance) {
+        return getFiles(instance.getBinDirectory()).stream()
+                .filter(file -> !file.getName().equalsIgnoreCase("minecraft.jar")
+                        && !file.getName().equalsIgnoreCase("modpack.jar")
+                        && !file.equals(instance.getNativesDirectory()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<File> getFiles(File directory) {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        // listFiles order isn't guaranteed, so sort to keep the fingerprint stable
+        return Arrays.stream(files).sorted().collect(Collectors.toList());
+    }
+
+    private static String getLauncherPath() {
+        File thisFile = new File(MCLauncher.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+
+        try {
+            return URLDecoder.decode(thisFile.getCanonicalPath(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            LogManager.logStackTrace(e);
+        } catch (IOException e) {
+            LogManager.logStackTrace(e);
+        }
+
+        return System.getProperty("java.class.path");
+    }
+
+    private static Path getPath(Instance instance) {
+        return FileSystem.LAUNCH_PLANS.resolve(instance.getRoot().getFileName().toString() + ".json");
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.atlauncher.managers.LogManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Keeps recent responses from the CurseForge, Modrinth, Modpacks.ch and Technic APIs in memory, already decoded, in
+ * front of the disk cache used by {@link Download#cached()}.
+ *
+ * When more than one thread asks for the same thing at once, only one request is made and they all get its result.
+ * Once a response is older than its time to live it's still returned for the same amount of time again while it's
+ * fetched again in the background, after which callers wait for a new one.
+ *
+ * Responses are shared between callers, so they shouldn't be changed. Failed requests (null responses) aren't kept.
+ */
+public final class ApiCache {
+    private static final int MAX_ENTRIES = Integer
+            .parseInt(System.getProperty("com.atlauncher.network.ApiCache.maxEntries", "250"));
+
+    private static final ExecutorService REVALIDATOR = Executors.newFixedThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("ApiCache-%d").setDaemon(true).build());
+
+    private static final Map<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the response for the given key, only calling the loader if there isn't a fresh enough one in memory and no
+     * other thread is already loading it.
+     *
+     * @param key    what identifies the request, normally its url
+     * @param ttl    how long a response is fresh for
+     * @param loader makes the request, returning null if it failed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(String key, long ttl, TimeUnit unit, Supplier<T> loader) {
+        long ttlMillis = unit.toMillis(ttl);
+        CachedResponse entry;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = System.currentTimeMillis() - entry.loadedAt;
+
+            if (age < ttlMillis) {
+                return (T) entry.value;
+            }
+
+            if (age < ttlMillis * 2) {
+                if (!inFlight.containsKey(key)) {
+                    REVALIDATOR.execute(() -> {
+                        try {
+                            load(key, loader);
+                        } catch (Exception e) {
+                            LogManager.logStackTrace("Error refreshing " + key, e, false);
+                        }
+                    });
+                }
+
+                return (T) entry.value;
+            }
+        }
+
+        return load(key, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw e;
+            }
+        }
+
+        try {
+            T value = loader.get();
+
+            if (value != null) {
+                synchronized (entries) {
+                    entries.put(key, new CachedResponse(value));
+                }
+            }
+
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Removes everything kept in memory, so the next requests go to the disk cache or network.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private static final class CachedResponse {
+        private final Object value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private CachedResponse(Object value) {
+            this.value = value;
+        }
+    }
+}
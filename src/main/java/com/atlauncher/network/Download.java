@@ -18,13 +18,16 @@
 package com.atlauncher.network;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
-import java.nio.channels.Channels;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -35,9 +38,11 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
-import com.atlauncher.utils.Utils;
 import com.atlauncher.workers.InstanceInstaller;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 
 import okhttp3.CacheControl;
@@ -51,6 +56,11 @@ import okhttp3.Response;
 public final class Download {
     public static final int MAX_ATTEMPTS = 3;
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // how often the progress of a download is saved, so it can be carried on after a crash
+    private static final long SAVE_PROGRESS_EVERY = 8L * 1024 * 1024;
+
     // pre request
     String url;
     private String friendlyFileName;
@@ -73,6 +83,15 @@ public final class Download {
     // generated on/after request
     public Response response;
 
+    // hash of the file at `to`, either computed while it was downloaded, read from disk or from the VerifiedFileIndex
+    private HashCode fileHash = null;
+
+    // what an earlier attempt downloaded, when the current response carries on from the end of it
+    private PartialDownload partial = null;
+
+    // bytes of this file read from the network by earlier attempts, which progress has already been told about
+    private long bytesRead = 0;
+
     public Download() {
 
     }
@@ -291,11 +310,22 @@ public final class Download {
     }
 
     private void execute() throws IOException {
+        execute(false);
+    }
+
+    /**
+     * @param resume if only the rest of the file should be asked for when an earlier attempt downloaded part of it
+     */
+    private void execute(boolean resume) throws IOException {
         // connection is already open, so close it first
         if (this.response != null) {
             this.response.close();
         }
 
+        this.partial = resume && this.to != null && this.post == null
+                ? PartialDownload.read(this.to, this.url, this.getExpectedHashDescription())
+                : null;
+
         Request.Builder builder = new Request.Builder().url(this.url);
 
         if (this.post != null) {
@@ -310,8 +340,25 @@ public final class Download {
             builder.cacheControl(this.cacheControl);
         }
 
+        if (this.partial != null) {
+            builder.header("Range", this.partial.getRange());
+            builder.header("If-Range", this.partial.getValidator());
+        }
+
         this.response = httpClient.newCall(builder.build()).execute();
 
+        if (this.partial != null && !this.partial.isContinuedBy(this.response)) {
+            // the file has changed since or the server doesn't support ranges, so it's starting from the beginning
+            LogManager.debug("Couldn't carry on downloading " + this.url + " from " + this.partial.bytes + " bytes");
+            PartialDownload.delete(this.to);
+            this.partial = null;
+
+            if (this.response.code() != 200) {
+                execute(false);
+                return;
+            }
+        }
+
         if (this.response == null || (!this.ignoreFailures && !this.response.isSuccessful())) {
             throw new DownloadException(this);
         }
@@ -392,7 +439,8 @@ public final class Download {
                 if (size == -1L) {
                     this.size = 0L;
                 } else {
-                    this.size = size;
+                    // a response carrying on from a partial download only has the length of the rest of the file
+                    this.size = size + (this.partial == null ? 0L : this.partial.bytes);
                 }
             }
         } catch (Exception e) {
@@ -414,21 +462,17 @@ public final class Download {
                 return false;
             }
 
-            if (this.fingerprint != null) {
-                try {
-                    if (Hashing.murmur(this.to) == this.fingerprint) {
-                        return false;
-                    }
-                } catch (IOException e) {
-                    LogManager.error("Error getting murmur hash");
+            try {
+                if (this.getFileHash().equals(this.getExpectedHashCode())) {
+                    return false;
+                }
+            } catch (IOException e) {
+                LogManager.error("Error getting " + getHashAlgorithm() + " hash of " + this.to);
+
+                // a file whose CurseForge fingerprint can't be worked out is kept, but others are downloaded again
+                if (this.fingerprint != null) {
                     return false;
                 }
-            } else if (this.md5() && Hashing.md5(this.to).equals(Hashing.toHashCode(this.getHash()))) {
-                return false;
-            } else if (this.sha512() && Hashing.sha512(this.to).equals(Hashing.toHashCode(this.getHash()))) {
-                return false;
-            } else if (Hashing.sha1(this.to).equals(Hashing.toHashCode(this.getHash()))) {
-                return false;
             }
 
             // if no hash, but filesizes match, then no need to download
@@ -440,7 +484,16 @@ public final class Download {
         return true;
     }
 
-    private void downloadDirect() {
+    /**
+     * Downloads the response to `to`, carrying on from the end of an earlier attempt if the response is for the rest
+     * of the file.
+     *
+     * The file is written to {@link PartialDownload#getFile(Path)} first and only moved to `to` once it's complete, so
+     * if the download fails part way through, what was downloaded is kept for the next attempt.
+     *
+     * @return if the whole response was downloaded
+     */
+    private boolean downloadDirect() {
         if (size == -1L) {
             size = this.getFilesize();
 
@@ -448,29 +501,173 @@ public final class Download {
                 instanceInstaller.addBytesToDownload(size);
             }
         }
-        try (FileChannel fc = FileChannel.open(this.to, Utils.WRITE);
-                ReadableByteChannel rbc = Channels.newChannel(this.response.body().byteStream())) {
-            fc.transferFrom(rbc, 0, Long.MAX_VALUE);
+
+        this.fileHash = null;
+
+        Path partFile = PartialDownload.getFile(this.to);
+        long position = this.partial == null ? 0L : this.partial.bytes;
+
+        // progress only knows about bytes read from the network this session
+        if (instanceInstaller != null && position > this.bytesRead) {
+            instanceInstaller.addDownloadedBytes(position - this.bytesRead);
+            this.bytesRead = position;
+        }
+
+        PartialDownload progress = this.post == null
+                ? PartialDownload.start(this.to, this.url, this.getExpectedHashDescription(), this.response)
+                : null;
+        long savedPosition = position;
+
+        // murmur fingerprints need the full file to hash, so those are done from disk afterwards
+        Hasher hasher = this.fingerprint == null ? Hashing.newHasher(getHashAlgorithm()) : null;
+
+        FileUtils.createDirectory(FileSystem.PARTIAL_DOWNLOADS);
+
+        try (FileChannel fc = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                InputStream stream = this.response.body().byteStream()) {
+            fc.truncate(position);
+
+            if (position != 0L && hasher != null) {
+                // the hash can't be saved part way through, so it's carried on by reading back what's on disk
+                try (InputStream existing = Files.newInputStream(partFile)) {
+                    ByteStreams.copy(ByteStreams.limit(existing, position), Funnels.asOutputStream(hasher));
+                }
+            }
+
+            fc.position(position);
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                if (hasher != null) {
+                    hasher.putBytes(buffer, 0, read);
+                }
+
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    fc.write(byteBuffer);
+                }
+
+                position += read;
+                this.bytesRead = Math.max(this.bytesRead, position);
+
+                // so a crash or kill doesn't lose everything downloaded
+                if (progress != null && position - savedPosition >= SAVE_PROGRESS_EVERY) {
+                    progress.save(position);
+                    savedPosition = position;
+                }
+            }
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to download file " + this.to, e, false);
+
+            if (progress != null && position != 0L) {
+                progress.save(position);
+            } else {
+                PartialDownload.delete(this.to);
+            }
+
+            return false;
         }
+
+        try {
+            Files.move(partFile, this.to, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to move downloaded file to " + this.to, e, false);
+            PartialDownload.delete(this.to);
+            return false;
+        }
+
+        PartialDownload.delete(this.to);
+        this.partial = null;
+
+        if (hasher != null) {
+            setFileHash(hasher.hash());
+        }
+
+        return true;
+    }
+
+    /**
+     * What the downloaded file is expected to hash to, used to make sure a partial download is for the same file.
+     */
+    private String getExpectedHashDescription() {
+        return this.fingerprint != null ? "murmur:" + this.fingerprint : this.hash;
+    }
+
+    private HashCode getExpectedHashCode() {
+        if (this.fingerprint != null) {
+            return HashCode.fromLong(this.fingerprint);
+        }
+
+        return Hashing.toHashCode(this.getHash());
+    }
+
+    private String getHashAlgorithm() {
+        if (this.fingerprint != null) {
+            return "murmur";
+        } else if (this.md5()) {
+            return "md5";
+        } else if (this.sha512()) {
+            return "sha512";
+        }
+
+        return "sha1";
+    }
+
+    private void setFileHash(HashCode hash) {
+        this.fileHash = hash;
+
+        if (hash.equals(Hashing.EMPTY_HASH_CODE)) {
+            return;
+        }
+
+        try {
+            VerifiedFileIndex.put(this.to, Files.readAttributes(this.to, BasicFileAttributes.class),
+                    getHashAlgorithm(), hash);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read attributes of " + this.to, e, false);
+        }
+    }
+
+    /**
+     * Gets the hash of the file at `to` using the same algorithm as the expected hash. This will reuse the hash
+     * computed while downloading (or when previously checked) as long as the file hasn't changed on disk since.
+     */
+    private HashCode getFileHash() throws IOException {
+        if (!Files.exists(this.to)) {
+            return Hashing.EMPTY_HASH_CODE;
+        }
+
+        HashCode hash = VerifiedFileIndex.get(this.to, Files.readAttributes(this.to, BasicFileAttributes.class),
+                getHashAlgorithm());
+
+        if (hash != null) {
+            this.fileHash = hash;
+            return hash;
+        }
+
+        if (this.fingerprint != null) {
+            hash = HashCode.fromLong(Hashing.murmur(this.to));
+        } else if (this.md5()) {
+            hash = Hashing.md5(this.to);
+        } else if (this.sha512()) {
+            hash = Hashing.sha512(this.to);
+        } else {
+            hash = Hashing.sha1(this.to);
+        }
+
+        setFileHash(hash);
+
+        return hash;
     }
 
     private boolean hashMatches() {
         if (Files.exists(this.to)) {
-            if (this.fingerprint != null) {
-                try {
-                    return Hashing.murmur(this.to) == this.fingerprint;
-                } catch (IOException e) {
-                    LogManager.error("Error getting murmur hash");
-                    return false;
-                }
-            } else if (this.md5()) {
-                return Hashing.md5(this.to).equals(Hashing.toHashCode(this.getHash()));
-            } else if (this.sha512()) {
-                return Hashing.sha512(this.to).equals(Hashing.toHashCode(this.getHash()));
-            } else {
-                return Hashing.sha1(this.to).equals(Hashing.toHashCode(this.getHash()));
+            try {
+                return this.getFileHash().equals(this.getExpectedHashCode());
+            } catch (IOException e) {
+                LogManager.error("Error getting " + getHashAlgorithm() + " hash of " + this.to);
+                return false;
             }
         }
 
@@ -487,10 +684,10 @@ public final class Download {
             FileUtils.delete(this.to);
         }
 
-        // if already opened or not first attempt, open the connection
-        if (this.response == null || attempt != 1) {
+        // if not opened, not the first attempt or carrying on from an earlier download, open the connection
+        if (this.response == null || attempt != 1 || PartialDownload.exists(this.to)) {
             try {
-                this.execute();
+                this.execute(true);
             } catch (IOException e) {
                 LogManager.logStackTrace(e);
 
@@ -503,8 +700,11 @@ public final class Download {
             }
         }
 
-        // download the file to disk
-        this.downloadDirect();
+        // download the file to disk, keeping what was downloaded for the next attempt if it fails part way through
+        if (!this.downloadDirect()) {
+            LogManager.debug("Failed downloading " + this.url + " on attempt " + attempt);
+            return this.downloadRec(attempt + 1);
+        }
 
         boolean hashMatches = hashMatches();
 
@@ -623,14 +823,18 @@ public final class Download {
             boolean downloaded = this.downloadRec(1);
 
             if (!downloaded) {
-                if (this.response != null && this.response.header("content-type").contains("text/html")) {
+                if (this.response != null && this.response.header("content-type", "").contains("text/html")) {
                     LogManager.error(
                             "The response from this request was a HTML response. This is usually caused by an antivirus or firewall software intercepting and rewriting the response. The response is below.");
 
-                    LogManager.error(new String(Files.readAllBytes(this.to)));
+                    if (Files.exists(this.to)) {
+                        LogManager.error(new String(Files.readAllBytes(this.to)));
+                    }
                 }
 
-                FileUtils.copyFile(this.to, FileSystem.FAILED_DOWNLOADS);
+                if (Files.exists(this.to)) {
+                    FileUtils.copyFile(this.to, FileSystem.FAILED_DOWNLOADS);
+                }
                 if (fingerprint != null) {
                     LogManager.error("Error downloading " + this.to.getFileName() + " from " + this.url + ". Expected"
                             + " fingerprint of " + fingerprint.toString() + " (with size of " + this.size + ") but got "
@@ -640,9 +844,7 @@ public final class Download {
                 } else {
                     LogManager.error("Error downloading " + this.to.getFileName() + " from " + this.url + ". Expected"
                             + " hash of " + expected.toString() + " (with size of " + this.size + ") but got "
-                            + (this.md5() ? Hashing.md5(this.to)
-                                    : (this.sha512() ? Hashing.sha512(this.to) : Hashing.sha1(this.to)))
-                            + " (with size of " + (Files.exists(this.to) ? Files.size(this.to) : 0)
+                            + this.getFileHash() + " (with size of " + (Files.exists(this.to) ? Files.size(this.to) : 0)
                             + ") instead. Copied to FailedDownloads folder & cancelling install!");
                 }
                 if (this.instanceInstaller != null) {
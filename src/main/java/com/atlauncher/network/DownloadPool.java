@@ -18,13 +18,12 @@
 package com.atlauncher.network;
 
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import com.atlauncher.App;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.FileUtils;
 
@@ -41,23 +40,29 @@ public final class DownloadPool extends LinkedList<Download> {
     }
 
     public void downloadAll() {
+        List<CompletableFuture<Void>> futures = downloadAllAsync();
+
+        if (this.wait) {
+            DownloadScheduler.await(futures);
+            VerifiedFileIndex.save();
+        }
+    }
+
+    public List<CompletableFuture<Void>> downloadAllAsync() {
         for (Download dl : this) {
             if (!Files.isDirectory(dl.to.getParent())) {
                 FileUtils.createDirectory(dl.to.getParent());
             }
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool(App.settings.concurrentConnections);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
         synchronized (this) {
             for (Download dl : this) {
-                executor.execute(new Downloader(dl));
-            }
-        }
-        executor.shutdown();
-        if (this.wait) {
-            while (!executor.isTerminated()) {
+                futures.add(DownloadScheduler.submit(dl.url, new Downloader(dl)));
             }
         }
+
+        return futures;
     }
 
     public long totalSize() {
@@ -76,9 +81,9 @@ public final class DownloadPool extends LinkedList<Download> {
         final DownloadPool pool = new DownloadPool(this.wait);
         final List<Download> downloads = this.stream().distinct().collect(Collectors.toList());
 
-        ExecutorService executor = Executors.newFixedThreadPool(App.settings.concurrentConnections);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
         for (final Download dl : downloads) {
-            executor.submit(() -> {
+            futures.add(DownloadScheduler.submit(() -> {
                 if (dl.needToDownload()) {
                     synchronized (pool) {
                         pool.add(dl);
@@ -87,12 +92,11 @@ public final class DownloadPool extends LinkedList<Download> {
                     dl.copy();
                     dl.runPostProcessors();
                 }
-            });
+            }));
         }
 
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+        DownloadScheduler.await(futures);
+        VerifiedFileIndex.save();
 
         return pool;
     }
@@ -0,0 +1,153 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Counts downloaded bytes from any number of download threads without locking, and reports the totals to a listener
+ * at a fixed rate rather than on every read from the network.
+ *
+ * Reporting starts once there's something to download, and stops when cleared, so progress bars can be hidden without
+ * a late update showing them again. Once closed it doesn't start again.
+ */
+public class DownloadProgress {
+    // how often the listener is updated, which is plenty for a progress bar
+    private static final long UPDATE_INTERVAL_MS = 50;
+
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("DownloadProgress").setDaemon(true).build());
+
+    private final LongAdder downloadedBytes = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final Listener listener;
+
+    private volatile boolean reporting = false;
+    private boolean closed = false;
+    private ScheduledFuture<?> sampling;
+    private long lastDownloadedBytes = -1L;
+    private long lastTotalBytes = -1L;
+
+    public DownloadProgress(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void addDownloadedBytes(long bytes) {
+        downloadedBytes.add(bytes);
+    }
+
+    public void addTotalBytes(long bytes) {
+        totalBytes.add(bytes);
+        startReporting();
+    }
+
+    /**
+     * Starts counting again from nothing with the given total.
+     */
+    public void setTotalBytes(long bytes) {
+        downloadedBytes.reset();
+        totalBytes.reset();
+        totalBytes.add(bytes);
+        startReporting();
+    }
+
+    /**
+     * Resets the downloaded bytes and stops reporting until more bytes are added to the total.
+     */
+    public void clearDownloadedBytes() {
+        stopReporting();
+        downloadedBytes.reset();
+    }
+
+    /**
+     * Stops reporting until more bytes are added to the total.
+     */
+    public synchronized void stopReporting() {
+        reporting = false;
+
+        if (sampling != null) {
+            sampling.cancel(false);
+            sampling = null;
+        }
+    }
+
+    public boolean isReporting() {
+        return reporting;
+    }
+
+    public long getDownloadedBytes() {
+        return downloadedBytes.sum();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    /**
+     * Stops the updates for good, once whatever was downloading has finished. Bytes added after this are still
+     * counted, but never reported.
+     */
+    public synchronized void close() {
+        closed = true;
+        stopReporting();
+    }
+
+    private synchronized void startReporting() {
+        if (closed) {
+            return;
+        }
+
+        reporting = true;
+        lastDownloadedBytes = -1L;
+        lastTotalBytes = -1L;
+
+        if (sampling == null) {
+            sampling = SAMPLER.scheduleAtFixedRate(this::sample, 0, UPDATE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void sample() {
+        if (!reporting) {
+            return;
+        }
+
+        long downloaded = downloadedBytes.sum();
+        long total = totalBytes.sum();
+
+        // nothing has changed since last time, so save updating the ui
+        if (downloaded == lastDownloadedBytes && total == lastTotalBytes) {
+            return;
+        }
+
+        lastDownloadedBytes = downloaded;
+        lastTotalBytes = total;
+
+        listener.onProgress(downloaded, total);
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onProgress(long downloadedBytes, long totalBytes);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.App;
+import com.atlauncher.managers.LogManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Long lived executor that all downloads in the launcher are submitted to.
+ *
+ * Network tasks are limited to {@link com.atlauncher.data.Settings#concurrentConnections} running at once per host,
+ * with anything over that being queued for that host without holding a worker thread. Callers get back a
+ * {@link CompletableFuture} which can be waited on without spinning.
+ */
+public final class DownloadScheduler {
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(getPoolSize(), getPoolSize(), 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("DownloadScheduler-%d").setDaemon(true).build());
+
+    private static final Map<String, HostQueue> HOSTS = new HashMap<>();
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DownloadScheduler() {
+    }
+
+    /**
+     * Submits a task which doesn't use the network (such as hashing a file on disk), so isn't bound by any host limits.
+     */
+    public static CompletableFuture<Void> submit(Runnable task) {
+        ensurePoolSize();
+
+        return CompletableFuture.runAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Submits a task which talks to the host of the given url. At most {@link #getHostLimit()} tasks for a single host
+     * will run at once.
+     */
+    public static CompletableFuture<Void> submit(String url, Runnable task) {
+        String host = getHost(url);
+
+        if (host == null) {
+            return submit(task);
+        }
+
+        ensurePoolSize();
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        HostTask hostTask = new HostTask(host, task, future);
+
+        synchronized (HOSTS) {
+            HostQueue queue = HOSTS.computeIfAbsent(host, h -> new HostQueue());
+
+            if (queue.running < getHostLimit()) {
+                queue.running++;
+                EXECUTOR.execute(hostTask);
+            } else {
+                queue.pending.add(hostTask);
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Blocks the calling thread until all the given futures have completed. If the calling thread is interrupted
+     * (such as when an install is cancelled) this will return early with the interrupt flag set.
+     */
+    public static void await(Collection<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LogManager.logStackTrace("Error waiting for downloads to finish", e.getCause());
+        }
+    }
+
+    private static void onHostTaskFinished(String host) {
+        synchronized (HOSTS) {
+            HostQueue queue = HOSTS.get(host);
+            queue.running--;
+
+            if (!queue.pending.isEmpty() && queue.running < getHostLimit()) {
+                queue.running++;
+                EXECUTOR.execute(queue.pending.poll());
+            } else if (queue.running == 0 && queue.pending.isEmpty()) {
+                HOSTS.remove(host);
+            }
+        }
+    }
+
+    private static String getHost(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        HttpUrl httpUrl = HttpUrl.parse(url);
+
+        return httpUrl == null ? null : httpUrl.host();
+    }
+
+    private static int getHostLimit() {
+        return Math.max(1, App.settings.concurrentConnections);
+    }
+
+    private static int getPoolSize() {
+        return Math.max(getHostLimit(), Runtime.getRuntime().availableProcessors());
+    }
+
+    private static void ensurePoolSize() {
+        int poolSize = getPoolSize();
+
+        // the number of concurrent connections can be changed in the settings while the launcher is open
+        if (EXECUTOR.getMaximumPoolSize() != poolSize) {
+            synchronized (EXECUTOR) {
+                if (poolSize > EXECUTOR.getMaximumPoolSize()) {
+                    EXECUTOR.setMaximumPoolSize(poolSize);
+                    EXECUTOR.setCorePoolSize(poolSize);
+                } else {
+                    EXECUTOR.setCorePoolSize(poolSize);
+                    EXECUTOR.setMaximumPoolSize(poolSize);
+                }
+            }
+        }
+    }
+
+    private static final class HostQueue {
+        private final Queue<HostTask> pending = new ArrayDeque<>();
+        private int running = 0;
+    }
+
+    private static final class HostTask implements Runnable {
+        private final String host;
+        private final Runnable task;
+        private final CompletableFuture<Void> future;
+
+        private HostTask(String host, Runnable task, CompletableFuture<Void> future) {
+            this.host = host;
+            this.task = task;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                onHostTaskFinished(host);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.google.gson.JsonParseException;
+
+import okhttp3.Response;
+
+/**
+ * The part of a file downloaded so far, kept when a download fails part way through so the next attempt (or the next
+ * time the launcher is opened) can ask for just the rest of the file.
+ *
+ * The bytes are kept in {@link FileSystem#PARTIAL_DOWNLOADS} next to a small json file recording where they came from
+ * and the ETag or Last-Modified of the response, which is sent back in an If-Range header so the server only continues
+ * from where it left off if the file hasn't changed since.
+ */
+final class PartialDownload {
+    // partial downloads not carried on in this long are removed
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    private static final AtomicBoolean garbageCollected = new AtomicBoolean(false);
+
+    private String url;
+    private String expectedHash;
+    private String validator;
+    long bytes;
+
+    private transient Path to;
+
+    /**
+     * Where the bytes downloaded so far for the given file are kept.
+     */
+    static Path getFile(Path to) {
+        return FileSystem.PARTIAL_DOWNLOADS.resolve(getKey(to) + ".part");
+    }
+
+    private static Path getInfoFile(Path to) {
+        return FileSystem.PARTIAL_DOWNLOADS.resolve(getKey(to) + ".json");
+    }
+
+    private static String getKey(Path to) {
+        return com.google.common.hash.Hashing.sha256()
+                .hashString(to.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8).toString();
+    }
+
+    static boolean exists(Path to) {
+        return Files.exists(getInfoFile(to));
+    }
+
+    /**
+     * Starts recording a download from the given response, or returns null if it can't be carried on later because
+     * the response has nothing to check that the file hasn't changed with.
+     */
+    static PartialDownload start(Path to, String url, String expectedHash, Response response) {
+        String validator = response.header("ETag");
+
+        // If-Range only works with strong validators
+        if (validator == null || validator.startsWith("W/")) {
+            validator = response.header("Last-Modified");
+        }
+
+        if (validator == null) {
+            return null;
+        }
+
+        PartialDownload partial = new PartialDownload();
+        partial.url = url;
+        partial.expectedHash = expectedHash;
+        partial.validator = validator;
+        partial.to = to;
+
+        return partial;
+    }
+
+    /**
+     * Reads what's been downloaded so far for the given file, as long as it was for the same url and expected hash.
+     *
+     * @return the partial download, or null if there isn't one that can be carried on
+     */
+    static PartialDownload read(Path to, String url, String expectedHash) {
+        Path infoFile = getInfoFile(to);
+
+        if (!Files.exists(infoFile)) {
+            return null;
+        }
+
+        PartialDownload partial = null;
+
+        try (Reader reader = Files.newBufferedReader(infoFile, StandardCharsets.UTF_8)) {
+            partial = Gsons.DEFAULT.fromJson(reader, PartialDownload.class);
+        } catch (IOException | JsonParseException e) {
+            LogManager.logStackTrace("Failed to read partial download of " + to, e, false);
+        }
+
+        try {
+            if (partial != null && Objects.equals(partial.url, url)
+                    && Objects.equals(partial.expectedHash, expectedHash) && partial.validator != null
+                    && partial.bytes > 0 && Files.size(getFile(to)) >= partial.bytes) {
+                partial.to = to;
+                return partial;
+            }
+        } catch (IOException ignored) {
+        }
+
+        delete(to);
+        return null;
+    }
+
+    String getRange() {
+        return "bytes=" + bytes + "-";
+    }
+
+    String getValidator() {
+        return validator;
+    }
+
+    /**
+     * Checks that the server is sending the rest of the file, rather than all of it (or something else).
+     */
+    boolean isContinuedBy(Response response) {
+        String contentRange = response.header("Content-Range");
+
+        return response.code() == 206 && contentRange != null && contentRange.startsWith("bytes " + bytes + "-");
+    }
+
+    /**
+     * Records how much of the file has been written, so it can be carried on from there.
+     */
+    void save(long bytes) {
+        this.bytes = bytes;
+
+        Path infoFile = getInfoFile(to);
+        Path temp = infoFile.resolveSibling(infoFile.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(this, writer);
+            }
+
+            Files.move(temp, infoFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save partial download of " + to, e, false);
+        }
+
+        if (garbageCollected.compareAndSet(false, true)) {
+            garbageCollect();
+        }
+    }
+
+    /**
+     * Removes anything downloaded so far for the given file.
+     */
+    static void delete(Path to) {
+        try {
+            Files.deleteIfExists(getInfoFile(to));
+            Files.deleteIfExists(getFile(to));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to delete partial download of " + to, e, false);
+        }
+    }
+
+    /**
+     * Removes partial downloads which haven't been carried on in a while.
+     */
+    static synchronized void garbageCollect() {
+        if (!Files.isDirectory(FileSystem.PARTIAL_DOWNLOADS)) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - MAX_AGE;
+
+        try (Stream<Path> stream = Files.list(FileSystem.PARTIAL_DOWNLOADS)) {
+            List<Path> old = stream.filter(Files::isRegularFile).filter(p -> {
+                try {
+                    return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                } catch (IOException e) {
+                    return false;
+                }
+            }).collect(Collectors.toList());
+
+            if (!old.isEmpty()) {
+                LogManager.debug("Removing " + old.size() + " old partial downloads");
+            }
+
+            old.forEach(FileUtils::delete);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clean up partial downloads", e);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Hashing;
+import com.google.common.hash.HashCode;
+
+/**
+ * Persistent index of file hashes, so files which haven't changed on disk since they were last hashed (such as
+ * libraries and assets checked on every launch) don't need to be read again.
+ *
+ * Entries are keyed by the absolute path of the file, and are only used if the size, modified time and file key
+ * (inode on systems that have them) still match what was recorded when the file was hashed. Entries for files which
+ * have changed are dropped when they're looked up, and those for files which have been deleted by {@link #prune()}.
+ */
+public final class VerifiedFileIndex {
+    private static final int VERSION = 1;
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static volatile boolean loaded = false;
+    private static volatile boolean dirty = false;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(VerifiedFileIndex::save));
+    }
+
+    private VerifiedFileIndex() {
+    }
+
+    /**
+     * Gets the recorded hash for the given file, or null if the file has changed since it was recorded (or was never
+     * recorded).
+     */
+    public static HashCode get(Path path, BasicFileAttributes attributes, String algorithm) {
+        load();
+
+        String key = getKey(path);
+        Entry entry = ENTRIES.get(key);
+
+        if (entry == null || !entry.algorithm.equals(algorithm)) {
+            return null;
+        }
+
+        if (!entry.matches(attributes)) {
+            if (ENTRIES.remove(key, entry)) {
+                dirty = true;
+            }
+
+            return null;
+        }
+
+        return entry.hash;
+    }
+
+    /**
+     * Checks if the file is already known to have the given hash without reading it, working out the algorithm from
+     * the length of the hash the same way downloads do.
+     */
+    public static boolean isVerified(Path path, String hash) {
+        if (hash == null) {
+            return false;
+        }
+
+        String algorithm = hash.length() == 32 ? "md5" : (hash.length() == 128 ? "sha512" : "sha1");
+
+        try {
+            HashCode recorded = get(path, Files.readAttributes(path, BasicFileAttributes.class), algorithm);
+
+            return recorded != null && recorded.equals(Hashing.toHashCode(hash));
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the SHA-1 hash of the given file, only reading the file if it's changed since it was last hashed.
+     *
+     * @return the hash, or {@link Hashing#EMPTY_HASH_CODE} if the file couldn't be read
+     */
+    public static HashCode sha1(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        HashCode hash = get(path, attributes, "sha1");
+
+        if (hash == null) {
+            hash = Hashing.sha1(path);
+
+            if (!hash.equals(Hashing.EMPTY_HASH_CODE)) {
+                put(path, attributes, "sha1", hash);
+            }
+        }
+
+        return hash;
+    }
+
+    public static void put(Path path, BasicFileAttributes attributes, String algorithm, HashCode hash) {
+        load();
+
+        Entry entry = new Entry(algorithm, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                getFileKey(attributes), hash);
+
+        Entry old = ENTRIES.put(getKey(path), entry);
+
+        if (!entry.equals(old)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes entries for files which no longer exist and saves the index. This checks every file in the index, so
+     * should be run in the background.
+     */
+    public static void prune() {
+        load();
+
+        if (ENTRIES.keySet().removeIf(key -> !Files.exists(Paths.get(key)))) {
+            dirty = true;
+        }
+
+        save();
+    }
+
+    /**
+     * Writes the index out to disk if anything has changed since it was loaded.
+     */
+    public static synchronized void save() {
+        if (!loaded) {
+            return;
+        }
+
+        if (!dirty) {
+            return;
+        }
+
+        dirty = false;
+
+        Path tempFile = FileSystem.VERIFIED_FILES.resolveSibling(FileSystem.VERIFIED_FILES.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(VERSION);
+            out.writeInt(ENTRIES.size());
+
+            for (Map.Entry<String, Entry> e : ENTRIES.entrySet()) {
+                Entry entry = e.getValue();
+                byte[] hash = entry.hash.asBytes();
+
+                out.writeUTF(e.getKey());
+                out.writeUTF(entry.algorithm);
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.writeUTF(entry.fileKey == null ? "" : entry.fileKey);
+                out.writeShort(hash.length);
+                out.write(hash);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save verified file index", e, false);
+            dirty = true;
+            return;
+        }
+
+        try {
+            Files.move(tempFile, FileSystem.VERIFIED_FILES, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save verified file index", e, false);
+            dirty = true;
+        }
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+
+        synchronized (VerifiedFileIndex.class) {
+            if (loaded) {
+                return;
+            }
+
+            if (Files.exists(FileSystem.VERIFIED_FILES)) {
+                try (DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(FileSystem.VERIFIED_FILES)))) {
+                    if (in.readInt() == VERSION) {
+                        int count = in.readInt();
+
+                        for (int i = 0; i < count; i++) {
+                            String key = in.readUTF();
+                            String algorithm = in.readUTF();
+                            long size = in.readLong();
+                            long modified = in.readLong();
+                            String fileKey = in.readUTF();
+                            byte[] hash = new byte[in.readShort()];
+                            in.readFully(hash);
+
+                            ENTRIES.put(key, new Entry(algorithm, size, modified, fileKey.isEmpty() ? null : fileKey,
+                                    HashCode.fromBytes(hash)));
+                        }
+                    }
+                } catch (EOFException e) {
+                    LogManager.warn("Verified file index was truncated, ignoring remaining entries");
+                } catch (IOException | IllegalArgumentException e) {
+                    LogManager.logStackTrace("Failed to load verified file index", e, false);
+                    ENTRIES.clear();
+                }
+            }
+
+            loaded = true;
+        }
+    }
+
+    private static String getKey(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    private static String getFileKey(BasicFileAttributes attributes) {
+        Object fileKey = attributes.fileKey();
+
+        return fileKey == null ? null : fileKey.toString();
+    }
+
+    private static final class Entry {
+        private final String algorithm;
+        private final long size;
+        private final long modified;
+        private final String fileKey;
+        private final HashCode hash;
+
+        private Entry(String algorithm, long size, long modified, String fileKey, HashCode hash) {
+            this.algorithm = algorithm;
+            this.size = size;
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.hash = hash;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified == attributes.lastModifiedTime().toMillis()
+                    && Objects.equals(fileKey, getFileKey(attributes));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+
+            Entry entry = (Entry) other;
+
+            return algorithm.equals(entry.algorithm) && size == entry.size && modified == entry.modified
+                    && Objects.equals(fileKey, entry.fileKey) && hash.equals(entry.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, size, modified, fileKey, hash);
+        }
+    }
+}
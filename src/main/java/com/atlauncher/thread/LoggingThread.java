@@ -17,35 +17,63 @@
  */
 package com.atlauncher.thread;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.atlauncher.App;
+import com.atlauncher.collection.RingBuffer;
 import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.evnt.LogEvent.LogType;
 
 import org.apache.logging.log4j.Logger;
 
 public final class LoggingThread extends Thread {
-    private final BlockingQueue<LogEvent> queue;
+    // the most events written out at once
+    private static final int BATCH_SIZE = 512;
+
+    private final RingBuffer<LogEvent> queue;
     private static final Logger logger = org.apache.logging.log4j.LogManager.getLogger(LoggingThread.class);
 
-    public LoggingThread(BlockingQueue<LogEvent> queue) {
+    public LoggingThread(RingBuffer<LogEvent> queue) {
         this.queue = queue;
         this.setName("ATL-Logging-Thread");
     }
 
     @Override
     public void run() {
+        List<LogEvent> batch = new ArrayList<>(BATCH_SIZE);
+        long reportedDropped = 0;
+
         while (true) {
-            LogEvent next;
             try {
-                next = this.queue.take();
+                this.queue.drainTo(batch, BATCH_SIZE);
             } catch (InterruptedException ignored) {
                 Thread.currentThread().interrupt();
                 return;
             }
-            if (next != null) {
-                next.post(logger);
+
+            long dropped = this.queue.getDropped();
+            if (dropped != reportedDropped) {
+                batch.add(new LogEvent(LogType.WARN, String.format(
+                        "%d log events were dropped as they were logged faster than they could be written out",
+                        dropped - reportedDropped)));
+                reportedDropped = dropped;
             }
+
+            try {
+                if (App.console != null) {
+                    App.console.console.write(batch);
+                }
+
+                for (LogEvent event : batch) {
+                    event.postToLog4j(logger);
+                }
+            } catch (Throwable t) {
+                // keep going, else anything waiting for space in the queue would wait forever
+                logger.error("Failed to write out log events", t);
+            }
+
+            batch.clear();
         }
     }
-
 }
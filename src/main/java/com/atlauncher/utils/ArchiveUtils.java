@@ -17,35 +17,79 @@
  */
 package com.atlauncher.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
 
 import javax.annotation.Nullable;
 
+import com.atlauncher.FileSystem;
 import com.atlauncher.managers.LogManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveOutputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
 import org.apache.commons.compress.utils.IOUtils;
 import org.zeroturnaround.zip.NameMapper;
-import org.zeroturnaround.zip.ZipUtil;
 
 public class ArchiveUtils {
+    // files which are already compressed, so aren't worth deflating again when zipping
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(
+            Arrays.asList("jar", "zip", "png", "jpg", "jpeg", "gif", "ogg", "mp3", "gz", "xz", "7z"));
+
+    private static final ThreadPoolExecutor EXTRACT_EXECUTOR = new ThreadPoolExecutor(
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("ArchiveExtractor-%d").setDaemon(true).build());
+
+    static {
+        EXTRACT_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     public static boolean archiveContainsFile(Path archivePath, String file) {
-        try {
-            return ZipUtil.containsEntry(archivePath.toFile(), file);
+        try (ZipFile zipFile = openZipFile(archivePath)) {
+            return zipFile.getEntry(file) != null;
         } catch (Throwable t) {
             // allow this to fail as we can fallback to Apache Commons library
             LogManager.error("Failed to check if archive contains file in " + archivePath.toAbsolutePath());
@@ -97,12 +141,14 @@ public class ArchiveUtils {
     }
 
     public static String getFile(Path archivePath, String file) {
-        try {
-            return new String(ZipUtil.unpackEntry(createStream(archivePath), file));
-        } catch (Throwable t) {
-            // allow this to fail as we can fallback to Apache Commons library
-            LogManager.warn(
-                    "Failed to get contents of file in " + archivePath.toAbsolutePath() + ". Trying fallback method");
+        if (!archivePath.toString().startsWith("file:")) {
+            try (ZipFile zipFile = openZipFile(archivePath)) {
+                return readEntry(zipFile, file);
+            } catch (Throwable t) {
+                // allow this to fail as we can fallback to reading the archive sequentially
+                LogManager.warn("Failed to get contents of file in " + archivePath.toAbsolutePath()
+                        + ". Trying fallback method");
+            }
         }
 
         String contents = null;
@@ -132,17 +178,95 @@ public class ArchiveUtils {
         return contents;
     }
 
+    /**
+     * Gets the contents of any of the given files which exist in the archive, opening it only once.
+     *
+     * @return map of file name to its contents, only containing the files which were found
+     */
+    public static Map<String, String> getFiles(Path archivePath, String... files) {
+        Map<String, String> contents = new HashMap<>();
+
+        try (ZipFile zipFile = openZipFile(archivePath)) {
+            for (String file : files) {
+                String fileContents = readEntry(zipFile, file);
+
+                if (fileContents != null) {
+                    contents.put(file, fileContents);
+                }
+            }
+        } catch (Throwable t) {
+            LogManager.debug("Failed to get contents of files in " + archivePath.toAbsolutePath() + ": "
+                    + t.getMessage());
+        }
+
+        return contents;
+    }
+
+    /**
+     * Combines two jars, with entries in the jar to add taking priority over those in the main jar. Entries are copied
+     * as is, without being inflated and deflated again.
+     */
+    public static boolean combineJars(Path mainJar, Path jarToAdd, Path outputJar) {
+        // local file headers are needed to find each entry's raw data, so these can't skip reading them
+        try (ZipFile zipFile = new ZipFile(mainJar.toFile());
+                ZipFile zipFileToAdd = new ZipFile(jarToAdd.toFile());
+                ZipArchiveOutputStream zos = new ZipArchiveOutputStream(outputJar.toFile())) {
+            Set<String> entriesAdded = new HashSet<>();
+
+            for (ZipFile file : Arrays.asList(zipFileToAdd, zipFile)) {
+                for (ZipArchiveEntry entry : Collections.list(file.getEntriesInPhysicalOrder())) {
+                    if (entry.getName().contains("META-INF") || !entriesAdded.add(entry.getName())) {
+                        continue;
+                    }
+
+                    try (InputStream rawInputStream = file.getRawInputStream(entry)) {
+                        zos.addRawArchiveEntry(entry, rawInputStream);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to combine " + mainJar + " and " + jarToAdd, e);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Opens the archive for random access, reading only its central directory.
+     */
+    private static ZipFile openZipFile(Path archivePath) throws IOException {
+        return new ZipFile(archivePath.toFile(), "UTF8", true, true);
+    }
+
+    private static String readEntry(ZipFile zipFile, String file) throws IOException {
+        ZipArchiveEntry entry = zipFile.getEntry(file);
+
+        if (entry == null || entry.isDirectory() || !zipFile.canReadEntryData(entry)) {
+            return null;
+        }
+
+        try (InputStream is = zipFile.getInputStream(entry)) {
+            return new String(IOUtils.toByteArray(is));
+        }
+    }
+
     public static boolean extract(Path archivePath, Path extractToPath) {
         return extract(archivePath, extractToPath, name -> name);
     }
 
     public static boolean extract(Path archivePath, Path extractToPath, NameMapper nameMapper) {
         try {
-            ZipUtil.unpack(archivePath.toFile(), extractToPath.toFile(), nameMapper);
+            extractInParallel(archivePath, extractToPath, nameMapper);
             return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogManager.warn("Extracting " + archivePath.toAbsolutePath() + " was interrupted");
+            return false;
         } catch (Throwable t) {
-            // allow this to fail as we can fallback to Apache Commons library
-            LogManager.error("Failed to extract " + archivePath.toAbsolutePath());
+            // allow this to fail as we can fallback to reading the archive sequentially
+            LogManager.logStackTrace("Failed to extract " + archivePath.toAbsolutePath() + ". Trying fallback method",
+                    t, false);
         }
 
         try (InputStream is = Files.newInputStream(archivePath);
@@ -153,22 +277,13 @@ public class ArchiveUtils {
                     continue;
                 }
 
-                Path outputPath;
                 String fileName = nameMapper.map(entry.getName());
 
                 if (fileName == null) {
                     continue;
                 }
 
-                try {
-                    outputPath = extractToPath.resolve(fileName);
-                } catch (InvalidPathException e) {
-                    String newFilename = fileName.replaceAll("[:*\\?\"<>|]", "");
-                    LogManager
-                            .warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
-                                    fileName, newFilename));
-                    outputPath = extractToPath.resolve(newFilename);
-                }
+                Path outputPath = getOutputPath(extractToPath, fileName);
 
                 File f = outputPath.toFile();
                 if (entry.isDirectory()) {
@@ -193,18 +308,148 @@ public class ArchiveUtils {
         return true;
     }
 
+    /**
+     * Extracts the archive using its central directory. Directories are all created up front, and then files are
+     * inflated on a pool of threads, each writing straight to a file presized to the entry's size.
+     */
+    private static void extractInParallel(Path archivePath, Path extractToPath, NameMapper nameMapper)
+            throws IOException, InterruptedException, ExecutionException {
+        try (ZipFile zipFile = openZipFile(archivePath)) {
+            Map<ZipArchiveEntry, Path> files = new LinkedHashMap<>();
+            Set<Path> directories = new TreeSet<>();
+            Path normalizedExtractToPath = extractToPath.toAbsolutePath().normalize();
+
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                if (!zipFile.canReadEntryData(entry)) {
+                    continue;
+                }
+
+                String fileName = nameMapper.map(entry.getName());
+
+                if (fileName == null) {
+                    continue;
+                }
+
+                Path outputPath = getOutputPath(extractToPath, fileName);
+
+                if (!outputPath.toAbsolutePath().normalize().startsWith(normalizedExtractToPath)) {
+                    LogManager.warn(String.format("Not extracting '%s' from %s as it's outside of the target folder",
+                            fileName, archivePath.toAbsolutePath()));
+                    continue;
+                }
+
+                if (entry.isDirectory()) {
+                    directories.add(outputPath);
+                } else {
+                    directories.add(outputPath.getParent());
+                    files.put(entry, outputPath);
+                }
+            }
+
+            for (Path directory : directories) {
+                Files.createDirectories(directory);
+            }
+
+            if (files.size() <= 1) {
+                for (Map.Entry<ZipArchiveEntry, Path> file : files.entrySet()) {
+                    extractEntry(zipFile, file.getKey(), file.getValue());
+                }
+
+                return;
+            }
+
+            // the first getInputStream for an entry reads its local file header to find where its data starts, using
+            // the zip's shared channel position and buffers, so that has to be done for every entry here first
+            for (ZipArchiveEntry entry : files.keySet()) {
+                zipFile.getInputStream(entry).close();
+            }
+
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Map.Entry<ZipArchiveEntry, Path> file : files.entrySet()) {
+                futures.add(EXTRACT_EXECUTOR.submit(() -> {
+                    extractEntry(zipFile, file.getKey(), file.getValue());
+                    return null;
+                }));
+            }
+
+            try {
+                for (Future<Void> future : futures) {
+                    future.get();
+                }
+            } finally {
+                // make sure nothing is still using the zip file before it's closed
+                futures.forEach(f -> f.cancel(false));
+                for (Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (CancellationException | ExecutionException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private static void extractEntry(ZipFile zipFile, ZipArchiveEntry entry, Path outputPath) throws IOException {
+        // the file may be a hardlink into the mod store, so replace it rather than writing through it
+        Files.deleteIfExists(outputPath);
+
+        try (InputStream is = zipFile.getInputStream(entry);
+                RandomAccessFile file = new RandomAccessFile(outputPath.toFile(), "rw")) {
+            if (entry.getSize() > 0) {
+                file.setLength(entry.getSize());
+            }
+
+            FileChannel channel = file.getChannel();
+            byte[] buffer = new byte[64 * 1024];
+            long written = 0;
+            int read;
+
+            while ((read = is.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+
+                while (byteBuffer.hasRemaining()) {
+                    written += channel.write(byteBuffer, written);
+                }
+            }
+
+            if (written != file.length()) {
+                file.setLength(written);
+            }
+        }
+
+        if (!OS.isWindows() && entry.getPlatform() == ZipArchiveEntry.PLATFORM_UNIX
+                && (entry.getUnixMode() & 0111) != 0) {
+            outputPath.toFile().setExecutable(true);
+        }
+    }
+
+    private static Path getOutputPath(Path extractToPath, String fileName) {
+        try {
+            return extractToPath.resolve(fileName);
+        } catch (InvalidPathException e) {
+            String newFilename = fileName.replaceAll("[:*\\?\"<>|]", "");
+            LogManager.warn(String.format("InvalidPath when extracting file with name of '%s'. Renaming to '%s'",
+                    fileName, newFilename));
+            return extractToPath.resolve(newFilename);
+        }
+    }
+
     public static boolean createZip(Path pathToCompress, Path archivePath) {
         return createZip(pathToCompress, archivePath, name -> name);
     }
 
     public static boolean createZip(Path pathToCompress, Path archivePath, NameMapper nameMapper) {
         try {
-            ZipUtil.pack(pathToCompress.toFile(), archivePath.toFile(), nameMapper);
+            createZipInParallel(pathToCompress, archivePath, nameMapper);
             return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogManager.warn("Creating zip " + archivePath.toAbsolutePath() + " was interrupted");
+            return false;
         } catch (Throwable t) {
-            // allow this to fail as we can fallback to Apache Commons library
-            LogManager.error("Failed to create zip " + archivePath.toAbsolutePath() + " from "
-                    + pathToCompress.toAbsolutePath());
+            // allow this to fail as we can fallback to a single threaded method
+            LogManager.logStackTrace("Failed to create zip " + archivePath.toAbsolutePath() + " from "
+                    + pathToCompress.toAbsolutePath() + ". Trying fallback method", t, false);
         }
 
         try (OutputStream os = Files.newOutputStream(archivePath);
@@ -252,4 +497,105 @@ public class ArchiveUtils {
 
         return true;
     }
+
+    /**
+     * Compresses entries on a pool of threads (one per core) into temporary files, which are then joined together in
+     * order into the final zip. Files which are already compressed are stored as is rather than deflated again.
+     */
+    private static void createZipInParallel(Path pathToCompress, Path archivePath, NameMapper nameMapper)
+            throws IOException, InterruptedException, ExecutionException {
+        FileUtils.createDirectory(FileSystem.TEMP);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("ZipCreator-%d").setDaemon(true).build());
+        // the creator has no close() of its own and only cleans up its temp files in writeTo, so keep track of
+        // them here in case that's never reached
+        List<FileBasedScatterGatherBackingStore> backingStores = Collections.synchronizedList(new ArrayList<>());
+        ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor, () -> {
+            FileBasedScatterGatherBackingStore backingStore = new FileBasedScatterGatherBackingStore(
+                    Files.createTempFile(FileSystem.TEMP, "zip", ".tmp").toFile());
+            backingStores.add(backingStore);
+            return backingStore;
+        });
+
+        try {
+            Files.walkFileTree(pathToCompress, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    if (dir.equals(pathToCompress)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    // directories get their own entries so that empty ones are kept
+                    String dirName = nameMapper
+                            .map(pathToCompress.relativize(dir).toString().replace('\\', '/') + "/");
+
+                    if (dirName == null) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    ZipArchiveEntry entry = new ZipArchiveEntry(dirName);
+                    entry.setTime(attributes.lastModifiedTime().toMillis());
+                    entry.setMethod(ZipEntry.STORED);
+
+                    creator.addArchiveEntry(entry, () -> new ByteArrayInputStream(new byte[0]));
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    // only copy files, no symbolic links or directories
+                    if (attributes.isSymbolicLink() || attributes.isDirectory()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    String fileName = nameMapper.map(pathToCompress.relativize(file).toString().replace('\\', '/'));
+
+                    if (fileName == null) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    ZipArchiveEntry entry = new ZipArchiveEntry(fileName);
+                    entry.setSize(attributes.size());
+                    entry.setTime(attributes.lastModifiedTime().toMillis());
+                    entry.setMethod(isCompressed(fileName) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+
+                    creator.addArchiveEntry(entry, () -> {
+                        try {
+                            return Files.newInputStream(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(archivePath.toFile())) {
+                creator.writeTo(zos);
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+
+            synchronized (backingStores) {
+                for (FileBasedScatterGatherBackingStore backingStore : backingStores) {
+                    try {
+                        backingStore.close();
+                    } catch (IOException e) {
+                        LogManager.logStackTrace("Failed to remove temporary zip file", e, false);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isCompressed(String fileName) {
+        int extensionIndex = fileName.lastIndexOf('.');
+
+        return extensionIndex != -1
+                && COMPRESSED_EXTENSIONS.contains(fileName.substring(extensionIndex + 1).toLowerCase(Locale.ENGLISH));
+    }
 }
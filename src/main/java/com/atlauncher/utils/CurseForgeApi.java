@@ -36,6 +36,7 @@ import com.atlauncher.data.curseforge.CurseForgeFile;
 import com.atlauncher.data.curseforge.CurseForgeFingerprint;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.ApiCache;
 import com.atlauncher.network.Download;
 import com.google.gson.reflect.TypeToken;
 
@@ -87,7 +88,8 @@ public class CurseForgeApi {
             java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeProject>>>() {
             }.getType();
 
-            CurseForgeCoreApiResponse<List<CurseForgeProject>> response = download.asType(type);
+            CurseForgeCoreApiResponse<List<CurseForgeProject>> response = ApiCache.get(url, 10, TimeUnit.MINUTES,
+                    () -> download.asType(type));
 
             if (response != null) {
                 return response.data;
@@ -144,7 +146,8 @@ public class CurseForgeApi {
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeFile>>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = download.asType(type);
+        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = ApiCache.get(url, 10, TimeUnit.MINUTES,
+                () -> download.asType(type));
 
         if (response != null) {
             return response.data;
@@ -162,7 +165,8 @@ public class CurseForgeApi {
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<CurseForgeFile>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<CurseForgeFile> response = download.asType(type);
+        CurseForgeCoreApiResponse<CurseForgeFile> response = ApiCache.get(url, 1, TimeUnit.HOURS,
+                () -> download.asType(type));
 
         if (response != null) {
             return response.data;
@@ -180,7 +184,8 @@ public class CurseForgeApi {
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<CurseForgeProject>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<CurseForgeProject> response = download.asType(type);
+        CurseForgeCoreApiResponse<CurseForgeProject> response = ApiCache.get(url, 10, TimeUnit.MINUTES,
+                () -> download.asType(type));
 
         if (response != null) {
             return response.data;
@@ -204,24 +209,23 @@ public class CurseForgeApi {
     }
 
     public static List<CurseForgeProject> getProjects(int[] projectIds) {
-        Download download = Download.build();
-
         String url = String.format("%s/mods", Constants.CURSEFORGE_CORE_API_URL);
 
         Map<String, int[]> body = new HashMap<>();
         body.put("modIds", projectIds);
+        String json = Gsons.DEFAULT.toJson(body);
 
-        download = download
-                .post(RequestBody.create(Gsons.DEFAULT.toJson(body),
-                        MediaType.get("application/json; charset=utf-8")));
-
-        download = download.setUrl(url)
+        Download download = Download.build()
+                .post(RequestBody.create(json,
+                        MediaType.get("application/json; charset=utf-8")))
+                .setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
 
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeProject>>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<List<CurseForgeProject>> response = download.asType(type);
+        CurseForgeCoreApiResponse<List<CurseForgeProject>> response = ApiCache.get(url + " " + json, 10,
+                TimeUnit.MINUTES, () -> download.asType(type));
 
         if (response != null) {
             return response.data;
@@ -233,18 +237,20 @@ public class CurseForgeApi {
     public static List<CurseForgeFile> getFiles(int[] fileIds) {
         Map<String, int[]> body = new HashMap<>();
         body.put("fileIds", fileIds);
+        String url = String.format("%s/mods/files", Constants.CURSEFORGE_CORE_API_URL);
+        String json = Gsons.DEFAULT.toJson(body);
 
         Download download = Download.build()
-                .post(RequestBody.create(Gsons.DEFAULT.toJson(
-                        body),
+                .post(RequestBody.create(json,
                         MediaType.get("application/json; charset=utf-8")))
-                .setUrl(String.format("%s/mods/files", Constants.CURSEFORGE_CORE_API_URL))
+                .setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
 
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeFile>>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = download.asType(type);
+        CurseForgeCoreApiResponse<List<CurseForgeFile>> response = ApiCache.get(url + " " + json, 10,
+                TimeUnit.MINUTES, () -> download.asType(type));
 
         if (response != null) {
             return response.data;
@@ -289,7 +295,8 @@ public class CurseForgeApi {
         java.lang.reflect.Type type = new TypeToken<CurseForgeCoreApiResponse<List<CurseForgeCategoryForGame>>>() {
         }.getType();
 
-        CurseForgeCoreApiResponse<List<CurseForgeCategoryForGame>> response = download.asType(type);
+        CurseForgeCoreApiResponse<List<CurseForgeCategoryForGame>> response = ApiCache.get(url, 1, TimeUnit.HOURS,
+                () -> download.asType(type));
 
         if (response != null) {
             return response.data;
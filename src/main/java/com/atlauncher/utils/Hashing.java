@@ -18,19 +18,23 @@
 package com.atlauncher.utils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.atlauncher.managers.LogManager;
 import com.google.common.hash.HashCode;
-import com.sangupta.murmur.Murmur2;
-
-import org.apache.commons.lang3.ArrayUtils;
+import com.google.common.hash.Hasher;
 
 public final class Hashing {
     public static final HashCode EMPTY_HASH_CODE = HashCode.fromBytes(new byte[1]);
 
+    private static final int MURMUR_BUFFER_SIZE = 64 * 1024;
+    private static final long MURMUR_SEED = 1L;
+    private static final long MURMUR_M = 0x5bd1e995L;
+    private static final long UINT_MASK = 0xFFFFFFFFL;
+
     public static HashCode md5(String str) {
         if (str == null || str.isEmpty()) {
             return EMPTY_HASH_CODE;
@@ -65,6 +69,12 @@ public final class Hashing {
         }
     }
 
+    // SHA-1 is deprecated in Guava as it's no longer secure, but it's only used here to identify data
+    @SuppressWarnings("deprecation")
+    public static HashCode sha1(byte[] bytes, int offset, int length) {
+        return com.google.common.hash.Hashing.sha1().hashBytes(bytes, offset, length);
+    }
+
     public static HashCode sha512(Path file) {
         if (!Files.exists(file)) {
             return EMPTY_HASH_CODE;
@@ -78,15 +88,97 @@ public final class Hashing {
         }
     }
 
-    // TODO: this is really not efficient or good on memory
+    /**
+     * Starts hashing data with the given algorithm (md5, sha1 or sha512) a piece at a time. MD5 and SHA-1 are
+     * deprecated in Guava as they're no longer secure, but they're what downloads are checked with.
+     */
+    @SuppressWarnings("deprecation")
+    public static Hasher newHasher(String algorithm) {
+        if (algorithm.equals("md5")) {
+            return com.google.common.hash.Hashing.md5().newHasher();
+        } else if (algorithm.equals("sha512")) {
+            return com.google.common.hash.Hashing.sha512().newHasher();
+        }
+
+        return com.google.common.hash.Hashing.sha1().newHasher();
+    }
+
+    /**
+     * Computes the murmur2 hash of the file as used by CurseForge for fingerprinting. This ignores any whitespace
+     * bytes (9, 10, 13 and 32) in the file.
+     *
+     * Since murmur2 seeds the hash with the length of the data, the file is read twice through a fixed size buffer:
+     * once to count the non whitespace bytes and once to hash them, so the file is never fully held in memory.
+     */
     public static long murmur(Path to) throws IOException {
-        byte[] bytes = ArrayUtils
-                .removeAllOccurrences(ArrayUtils.removeAllOccurrences(
-                        ArrayUtils.removeAllOccurrences(
-                                ArrayUtils.removeAllOccurrences(Files.readAllBytes(to), (byte) 9), (byte) 10),
-                        (byte) 13), (byte) 32);
+        byte[] buffer = new byte[MURMUR_BUFFER_SIZE];
+
+        int length = 0;
+        try (InputStream is = Files.newInputStream(to)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (!isMurmurWhitespace(buffer[i])) {
+                        length++;
+                    }
+                }
+            }
+        }
+
+        long hash = (MURMUR_SEED ^ length) & UINT_MASK;
+        byte[] block = new byte[4];
+        int blockLength = 0;
+
+        try (InputStream is = Files.newInputStream(to)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (isMurmurWhitespace(buffer[i])) {
+                        continue;
+                    }
+
+                    block[blockLength++] = buffer[i];
+
+                    if (blockLength == 4) {
+                        long k = (block[0] & 0xFFL) | (block[1] & 0xFFL) << 8 | (block[2] & 0xFFL) << 16
+                                | (block[3] & 0xFFL) << 24;
+
+                        k = (k * MURMUR_M) & UINT_MASK;
+                        k ^= (k >>> 24) & UINT_MASK;
+                        k = (k * MURMUR_M) & UINT_MASK;
+
+                        hash = (hash * MURMUR_M) & UINT_MASK;
+                        hash = (hash ^ k) & UINT_MASK;
+
+                        blockLength = 0;
+                    }
+                }
+            }
+        }
+
+        // the trailing bytes are sign extended to match the reference implementation CurseForge fingerprints use
+        if (blockLength > 0) {
+            if (blockLength == 3) {
+                hash ^= (block[2] << 16) & UINT_MASK;
+            }
+
+            if (blockLength >= 2) {
+                hash ^= (block[1] << 8) & UINT_MASK;
+            }
+
+            hash ^= block[0] & UINT_MASK;
+            hash = (hash * MURMUR_M) & UINT_MASK;
+        }
+
+        hash ^= (hash >>> 13) & UINT_MASK;
+        hash = (hash * MURMUR_M) & UINT_MASK;
+        hash ^= hash >>> 15;
+
+        return hash;
+    }
 
-        return Murmur2.hash(bytes, bytes.length, 1L);
+    private static boolean isMurmurWhitespace(byte b) {
+        return b == 9 || b == 10 || b == 13 || b == 32;
     }
 
     public static HashCode toHashCode(String hash) {
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.modpacksch.ModpacksChPackList;
 import com.atlauncher.data.modpacksch.ModpacksChPackManifest;
+import com.atlauncher.network.ApiCache;
 import com.atlauncher.network.Download;
 
 import okhttp3.CacheControl;
@@ -34,50 +35,58 @@ import okhttp3.CacheControl;
  */
 public class ModpacksChApi {
     public static List<ModpacksChPackManifest> searchModPacks(String query, int page) {
-        String url = String.format("%s/modpack/search/50", Constants.MODPACKS_CH_API_URL);
+        String url = String.format("%s/modpack/search/50%s", Constants.MODPACKS_CH_API_URL,
+                query != null && !query.isEmpty() ? String.format("?term=%s", query) : "");
+        ModpacksChPackList packList = getPackList(url);
 
-        if (query != null && !query.isEmpty()) {
-            url += String.format("?term=%s", query);
-        }
-
-        ModpacksChPackList packList = Download.build().setUrl(url).asType(ModpacksChPackList.class);
-
-        if (packList.status != null && packList.status.equals("error")) {
+        if (packList == null) {
             return new ArrayList<>();
         }
 
         List<Integer> packsToShow = packList.packs.stream().skip((page - 1) * Constants.MODPACKS_CH_PAGINATION_SIZE)
                 .limit(Constants.MODPACKS_CH_PAGINATION_SIZE).collect(Collectors.toList());
 
-        List<ModpacksChPackManifest> packs = packsToShow.parallelStream()
-                .map(packId -> com.atlauncher.network.Download.build()
-                        .setUrl(String.format("%s/modpack/%s", Constants.MODPACKS_CH_API_URL, packId))
-                        .cached(new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build())
-                        .asClass(ModpacksChPackManifest.class))
-                .filter(p -> p.versions != null).collect(Collectors.toList());
+        List<ModpacksChPackManifest> packs = packsToShow.parallelStream().map(ModpacksChApi::getModPack)
+                .filter(p -> p != null && p.versions != null).collect(Collectors.toList());
 
         return packs;
     }
 
     public static List<ModpacksChPackManifest> getModPacks(int page, String sort) {
-        ModpacksChPackList packList = Download.build()
-                .setUrl(String.format("%s/modpack/%s/50", Constants.MODPACKS_CH_API_URL, sort))
-                .asType(ModpacksChPackList.class);
+        String url = String.format("%s/modpack/%s/50", Constants.MODPACKS_CH_API_URL, sort);
+        ModpacksChPackList packList = getPackList(url);
 
-        if (packList.status != null && packList.status.equals("error")) {
+        if (packList == null) {
             return new ArrayList<>();
         }
 
         List<Integer> packsToShow = packList.packs.stream().skip((page - 1) * Constants.MODPACKS_CH_PAGINATION_SIZE)
                 .limit(Constants.MODPACKS_CH_PAGINATION_SIZE).collect(Collectors.toList());
 
-        List<ModpacksChPackManifest> packs = packsToShow.parallelStream()
-                .map(packId -> com.atlauncher.network.Download.build()
-                        .setUrl(String.format("%s/modpack/%s", Constants.MODPACKS_CH_API_URL, packId))
-                        .cached(new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build())
-                        .asClass(ModpacksChPackManifest.class))
-                .filter(p -> p.versions != null).collect(Collectors.toList());
+        List<ModpacksChPackManifest> packs = packsToShow.parallelStream().map(ModpacksChApi::getModPack)
+                .filter(p -> p != null && p.versions != null).collect(Collectors.toList());
 
         return packs;
     }
+
+    // error responses are returned as null so they aren't kept by ApiCache
+    private static ModpacksChPackList getPackList(String url) {
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> {
+            ModpacksChPackList packList = Download.build().setUrl(url).asType(ModpacksChPackList.class);
+
+            return packList == null || "error".equals(packList.status) ? null : packList;
+        });
+    }
+
+    private static ModpacksChPackManifest getModPack(int packId) {
+        String url = String.format("%s/modpack/%s", Constants.MODPACKS_CH_API_URL, packId);
+
+        return ApiCache.get(url, 1, TimeUnit.HOURS, () -> {
+            ModpacksChPackManifest manifest = Download.build().setUrl(url)
+                    .cached(new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build())
+                    .asClass(ModpacksChPackManifest.class);
+
+            return manifest == null || "error".equals(manifest.status) ? null : manifest;
+        });
+    }
 }
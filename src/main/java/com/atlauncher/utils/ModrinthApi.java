@@ -36,6 +36,7 @@ import com.atlauncher.data.modrinth.ModrinthProjectType;
 import com.atlauncher.data.modrinth.ModrinthSearchResult;
 import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.ApiCache;
 import com.atlauncher.network.Download;
 import com.google.gson.reflect.TypeToken;
 
@@ -75,8 +76,10 @@ public class ModrinthApi {
                 url += String.format("&facets=%s", Gsons.DEFAULT.toJson(facets));
             }
 
-            return Download.build().cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                    .setUrl(url).asClass(ModrinthSearchResult.class);
+            Download download = Download.build()
+                    .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build()).setUrl(url);
+
+            return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> download.asClass(ModrinthSearchResult.class));
         } catch (UnsupportedEncodingException e) {
             LogManager.logStackTrace(e);
         }
@@ -101,10 +104,11 @@ public class ModrinthApi {
     }
 
     public static ModrinthProject getProject(String projectId) {
-        return Download.build()
-                .setUrl(String.format("%s/project/%s", Constants.MODRINTH_API_URL, projectId.replace("local-", "")))
+        String url = String.format("%s/project/%s", Constants.MODRINTH_API_URL, projectId.replace("local-", ""));
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(ModrinthProject.class);
+                .asClass(ModrinthProject.class));
     }
 
     public static List<ModrinthVersion> getVersions(String projectId) {
@@ -136,18 +140,21 @@ public class ModrinthApi {
             queryParamsString += String.format("loaders=[\"%s\"]", loaderVersion.isFabric() ? "fabric" : "forge");
         }
 
-        return Download.build()
-                .setUrl(String.format("%s/project/%s/version%s", Constants.MODRINTH_API_URL, projectId,
-                        queryParamsString))
-                .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build()).asType(type);
+        String url = String.format("%s/project/%s/version%s", Constants.MODRINTH_API_URL, projectId,
+                queryParamsString);
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
+                .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build()).asType(type));
     }
 
     public static List<ModrinthCategory> getCategories() {
         java.lang.reflect.Type type = new TypeToken<List<ModrinthCategory>>() {
         }.getType();
 
-        return Download.build().setUrl(String.format("%s/tag/category", Constants.MODRINTH_API_URL))
-                .cached(new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build()).asType(type);
+        String url = String.format("%s/tag/category", Constants.MODRINTH_API_URL);
+
+        return ApiCache.get(url, 1, TimeUnit.HOURS, () -> Download.build().setUrl(url)
+                .cached(new CacheControl.Builder().maxStale(1, TimeUnit.HOURS).build()).asType(type));
     }
 
     public static List<ModrinthCategory> getCategoriesForModpacks() {
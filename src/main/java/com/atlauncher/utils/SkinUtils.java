@@ -59,12 +59,6 @@ public class SkinUtils {
             return getHead(Utils.getImage("/assets/image/skins/default.png"));
         }
 
-        try {
-            image = ImageIO.read(file);
-        } catch (IOException e) {
-            LogManager.logStackTrace(e);
-        }
-
         return getHead(image);
     }
 
@@ -133,12 +127,6 @@ public class SkinUtils {
             return getSkin(Utils.getImage("/assets/image/skins/default.png"));
         }
 
-        try {
-            image = ImageIO.read(file);
-        } catch (IOException e) {
-            LogManager.logStackTrace(e);
-        }
-
         return getSkin(image);
     }
 }
@@ -25,6 +25,7 @@ import com.atlauncher.data.technic.TechnicModpack;
 import com.atlauncher.data.technic.TechnicSearchResults;
 import com.atlauncher.data.technic.TechnicSolderModpack;
 import com.atlauncher.data.technic.TechnicSolderModpackManifest;
+import com.atlauncher.network.ApiCache;
 import com.atlauncher.network.Download;
 
 import okhttp3.CacheControl;
@@ -34,27 +35,30 @@ import okhttp3.CacheControl;
  */
 public class TechnicApi {
     public static TechnicSearchResults getTrendingModpacks() {
-        return Download.build()
-                .setUrl(String.format("%s/trending?build=%s", Constants.TECHNIC_API_URL,
-                        Constants.LAUNCHER_NAME.toLowerCase()))
+        String url = String.format("%s/trending?build=%s", Constants.TECHNIC_API_URL,
+                Constants.LAUNCHER_NAME.toLowerCase());
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(TechnicSearchResults.class);
+                .asClass(TechnicSearchResults.class));
     }
 
     public static TechnicSearchResults searchModpacks(String query) {
-        return Download.build()
-                .setUrl(String.format("%s/search?q=%s&build=%s", Constants.TECHNIC_API_URL, query,
-                        Constants.LAUNCHER_NAME.toLowerCase()))
+        String url = String.format("%s/search?q=%s&build=%s", Constants.TECHNIC_API_URL, query,
+                Constants.LAUNCHER_NAME.toLowerCase());
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(TechnicSearchResults.class);
+                .asClass(TechnicSearchResults.class));
     }
 
     public static TechnicModpack getModpackBySlug(String slug) {
-        return Download.build()
-                .setUrl(String.format("%s/modpack/%s?build=%s", Constants.TECHNIC_API_URL, slug,
-                        Constants.LAUNCHER_NAME.toLowerCase()))
+        String url = String.format("%s/modpack/%s?build=%s", Constants.TECHNIC_API_URL, slug,
+                Constants.LAUNCHER_NAME.toLowerCase());
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(TechnicModpack.class);
+                .asClass(TechnicModpack.class));
     }
 
     public static TechnicModpack getModpackBySlugWithThrow(String slug) throws IOException {
@@ -74,14 +78,18 @@ public class TechnicApi {
     }
 
     public static TechnicSolderModpack getSolderModpackBySlug(String solderUrl, String slug) {
-        return Download.build().setUrl(String.format("%s/modpack/%s", normalizeSolderUrl(solderUrl), slug))
+        String url = String.format("%s/modpack/%s", normalizeSolderUrl(solderUrl), slug);
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(TechnicSolderModpack.class);
+                .asClass(TechnicSolderModpack.class));
     }
 
     public static TechnicSolderModpackManifest getSolderModpackManifest(String solderUrl, String slug, String build) {
-        return Download.build().setUrl(String.format("%s/modpack/%s/%s", normalizeSolderUrl(solderUrl), slug, build))
+        String url = String.format("%s/modpack/%s/%s", normalizeSolderUrl(solderUrl), slug, build);
+
+        return ApiCache.get(url, 10, TimeUnit.MINUTES, () -> Download.build().setUrl(url)
                 .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                .asClass(TechnicSolderModpackManifest.class);
+                .asClass(TechnicSolderModpackManifest.class));
     }
 }
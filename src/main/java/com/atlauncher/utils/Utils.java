@@ -56,10 +56,9 @@ import java.security.Key;
 import java.util.Deque;
 import java.util.EnumSet;
 import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
@@ -83,12 +82,14 @@ import javax.swing.ScrollPaneConstants;
 import com.atlauncher.App;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
+import com.atlauncher.collection.Caching;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.minecraft.ExtractRule;
 import com.atlauncher.data.minecraft.FabricMod;
 import com.atlauncher.data.minecraft.MCMod;
 import com.atlauncher.data.openmods.OpenEyeReportResponse;
 import com.atlauncher.managers.LogManager;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 
 import org.apache.commons.io.IOUtils;
@@ -98,6 +99,8 @@ import org.tukaani.xz.XZInputStream;
 import net.iharder.Base64;
 
 public class Utils {
+    private static final Caching.Cache<String, Map<String, String>> MOD_INFO_FILES_CACHE = Caching.newLRU(512);
+
     public static EnumSet<StandardOpenOption> WRITE = EnumSet.of(StandardOpenOption.CREATE_NEW,
             StandardOpenOption.WRITE);
     public static EnumSet<StandardOpenOption> READ = EnumSet.of(StandardOpenOption.READ);
@@ -417,6 +420,10 @@ public class Utils {
                     copyDirectory(new File(sourceLocation, child), new File(targetLocation, child));
                 }
             } else {
+                // delete first rather than writing over the top, as the file may be linked to from other places
+                if (targetLocation.exists()) {
+                    targetLocation.delete();
+                }
 
                 InputStream in = new FileInputStream(sourceLocation);
                 OutputStream out = new FileOutputStream(targetLocation);
@@ -938,71 +945,7 @@ public class Utils {
     }
 
     public static boolean combineJars(File mainJar, File jarToAdd, File outputJar) {
-        try (FileInputStream is = new FileInputStream(mainJar);
-                JarInputStream jis = new JarInputStream(is);
-                JarFile jarFile = new JarFile(mainJar);
-
-                FileInputStream is2 = new FileInputStream(jarToAdd);
-                JarInputStream jis2 = new JarInputStream(is2);
-                JarFile jarFile2 = new JarFile(jarToAdd);
-
-                FileOutputStream fos = new FileOutputStream(outputJar);
-                JarOutputStream jos = new JarOutputStream(fos)) {
-            Set<String> entriesAdded = new HashSet<>();
-            JarEntry entry;
-            while ((entry = jis2.getNextJarEntry()) != null) {
-                if (entry.getName().contains("META-INF")) {
-                    continue;
-                }
-
-                InputStream jfis = jarFile2.getInputStream(entry);
-
-                JarEntry newEntry = new JarEntry(entry.getName());
-                jos.putNextEntry(newEntry);
-                entriesAdded.add(entry.getName());
-
-                byte[] buffer = new byte[8192];
-
-                int r;
-                while ((r = jis2.read(buffer, 0, buffer.length)) >= 0) {
-                    jos.write(buffer, 0, r);
-                }
-
-                jfis.close();
-                jos.flush();
-                jos.closeEntry();
-            }
-
-            while ((entry = jis.getNextJarEntry()) != null) {
-                if (entry.getName().contains("META-INF") || entriesAdded.contains(entry.getName())) {
-                    continue;
-                }
-
-                InputStream jfis = jarFile.getInputStream(entry);
-
-                JarEntry newEntry = new JarEntry(entry.getName());
-                jos.putNextEntry(newEntry);
-                entriesAdded.add(entry.getName());
-
-                byte[] buffer = new byte[8192];
-
-                int r;
-                while ((r = jis.read(buffer, 0, buffer.length)) >= 0) {
-                    jos.write(buffer, 0, r);
-                }
-
-                jfis.close();
-                jos.flush();
-                jos.closeEntry();
-            }
-
-        } catch (Exception e) {
-            LogManager.logStackTrace(e);
-
-            return false;
-        }
-
-        return true;
+        return ArchiveUtils.combineJars(mainJar.toPath(), jarToAdd.toPath(), outputJar.toPath());
     }
 
     /**
@@ -1620,7 +1563,7 @@ public class Utils {
             java.lang.reflect.Type type = new TypeToken<List<MCMod>>() {
             }.getType();
 
-            List<MCMod> mods = Gsons.MINECRAFT.fromJson(ArchiveUtils.getFile(file.toPath(), "mcmod.info"), type);
+            List<MCMod> mods = Gsons.MINECRAFT.fromJson(getModInfoFiles(file).get("mcmod.info"), type);
 
             if (mods.size() != 0 && mods.get(0) != null) {
                 return mods.get(0);
@@ -1633,9 +1576,10 @@ public class Utils {
     }
 
     public static FabricMod getFabricModForFile(File file) {
+        Map<String, String> modInfoFiles = getModInfoFiles(file);
+
         try {
-            FabricMod mod = Gsons.MINECRAFT.fromJson(ArchiveUtils.getFile(file.toPath(), "fabric.mod.json"),
-                    FabricMod.class);
+            FabricMod mod = Gsons.MINECRAFT.fromJson(modInfoFiles.get("fabric.mod.json"), FabricMod.class);
 
             if (mod != null) {
                 return mod;
@@ -1644,9 +1588,57 @@ public class Utils {
 
         }
 
+        // Quilt mods have the same details, just nested differently
+        try {
+            JsonObject quiltLoader = Gsons.MINECRAFT.fromJson(modInfoFiles.get("quilt.mod.json"), JsonObject.class)
+                    .getAsJsonObject("quilt_loader");
+            JsonObject metadata = quiltLoader.has("metadata") ? quiltLoader.getAsJsonObject("metadata")
+                    : new JsonObject();
+
+            FabricMod mod = new FabricMod();
+            mod.id = getJsonString(quiltLoader, "id");
+            mod.version = getJsonString(quiltLoader, "version");
+            mod.name = getJsonString(metadata, "name");
+            mod.description = getJsonString(metadata, "description");
+
+            return mod;
+        } catch (Exception ignored3) {
+
+        }
+
         return null;
     }
 
+    private static String getJsonString(JsonObject object, String key) {
+        return object.has(key) && object.get(key).isJsonPrimitive() ? object.get(key).getAsString() : null;
+    }
+
+    /**
+     * Reads all the files describing a mod from the given jar in one go. Results are cached against the file's size
+     * and modified time, so looking up the same mods again (such as reopening the edit mods dialog) doesn't need to
+     * open the jars again.
+     */
+    private static Map<String, String> getModInfoFiles(File file) {
+        String key = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+
+        synchronized (MOD_INFO_FILES_CACHE) {
+            Map<String, String> cached = MOD_INFO_FILES_CACHE.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Map<String, String> modInfoFiles = ArchiveUtils.getFiles(file.toPath(), "mcmod.info", "fabric.mod.json",
+                "quilt.mod.json");
+
+        synchronized (MOD_INFO_FILES_CACHE) {
+            MOD_INFO_FILES_CACHE.put(key, modInfoFiles);
+        }
+
+        return modInfoFiles;
+    }
+
     public static boolean executableInPath(String executableName) {
         try {
             return java.util.stream.Stream
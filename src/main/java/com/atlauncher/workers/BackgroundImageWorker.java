@@ -17,17 +17,17 @@
  */
 package com.atlauncher.workers;
 
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.SwingWorker;
 
 import com.atlauncher.FileSystem;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.ThumbnailManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.DownloadException;
 
@@ -57,21 +57,26 @@ public class BackgroundImageWorker extends SwingWorker<ImageIcon, Object> {
             }
         }
 
-        if (Files.exists(path)) {
-            BufferedImage image = ImageIO.read(path.toFile());
+        if (!Files.exists(path)) {
+            return null;
+        }
 
-            BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g = thumbnail.createGraphics();
-            g.drawImage(image, 0, 0, width, height, null);
-            g.dispose();
+        return ThumbnailManager.getThumbnail(path, width, height, ThumbnailManager.Scaling.STRETCH);
+    }
 
-            label.setIcon(new ImageIcon(thumbnail));
-            thumbnail.flush();
+    @Override
+    protected void done() {
+        try {
+            ImageIcon icon = get();
+
+            if (icon != null) {
+                label.setIcon(icon);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            LogManager.logStackTrace("Error loading image from " + url, e, false);
         }
 
         label.setVisible(true);
-
-        return null;
     }
 
 }
@@ -28,11 +28,14 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -108,9 +111,12 @@ import com.atlauncher.interfaces.NetworkProgressable;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.ModStoreManager;
 import com.atlauncher.managers.ServerManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
+import com.atlauncher.network.DownloadProgress;
+import com.atlauncher.network.DownloadScheduler;
 import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.CurseForgeApi;
@@ -129,10 +135,13 @@ import okhttp3.CacheControl;
 import okhttp3.OkHttpClient;
 
 public class InstanceInstaller extends SwingWorker<Boolean, Void> implements NetworkProgressable {
+    private static final int CURSEFORGE_FINGERPRINT_BATCH_SIZE = 50;
+
     protected double percent = 0.0; // Percent done installing
     protected double subPercent = 0.0; // Percent done sub installing
-    protected double totalBytes = 0; // Total number of bytes to download
-    protected double downloadedBytes = 0; // Total number of bytes downloaded
+    protected final DownloadProgress downloadProgress = new DownloadProgress(this::updateProgressBar);
+    // if install stages are running at the same time, so progress is added up rather than reset by each stage
+    private volatile boolean runningConcurrentStages = false;
 
     public Instance instance = null;
     public final String name;
@@ -357,6 +366,11 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 saveServerJson();
             }
 
+            // mods which were updated or removed may have left objects in the store nothing uses anymore
+            if (this.isReinstall) {
+                ModStoreManager.garbageCollectInBackground();
+            }
+
             Analytics.sendEvent(pack.name + " - " + version.version,
                     (this.isServer ? "Server" : "") + (this.isReinstall ? "Reinstalled" : "Installed"),
                     getAnalyticsCategory());
@@ -366,6 +380,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             success(false);
             cancel(true);
             LogManager.logStackTrace(e);
+        } finally {
+            downloadProgress.close();
         }
 
         return success(false);
@@ -1297,82 +1313,36 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         determineMainClass();
         determineArguments();
 
-        downloadResources();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadMinecraft();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadLoggingClient();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadLibraries();
-        if (isCancelled()) {
-            return false;
-        }
-
-        organiseLibraries();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadRuntime();
-        if (isCancelled()) {
-            return false;
-        }
-
-        installLoader();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadMods();
-        if (isCancelled()) {
-            return false;
-        }
-
-        installMods();
-        if (isCancelled()) {
-            return false;
-        }
-
-        installLegacyJavaFixer();
-        if (isCancelled()) {
-            return false;
-        }
-
-        runCaseConversion();
-        if (isCancelled()) {
-            return false;
-        }
-
-        runActions();
-        if (isCancelled()) {
-            return false;
-        }
-
-        installConfigs();
-        if (isCancelled()) {
-            return false;
-        }
+        // stages only wait on the stages they actually need, so downloads from independent stages overlap
+        TaskGraph taskGraph = new TaskGraph("InstanceInstaller.install", this::isCancelled)
+                .add("downloadResources", this::downloadResources)
+                .add("downloadMinecraft", this::downloadMinecraft)
+                .add("downloadLoggingClient", this::downloadLoggingClient)
+                .add("downloadLibraries", this::downloadLibraries)
+                .add("organiseLibraries", this::organiseLibraries, "downloadLibraries")
+                .add("downloadRuntime", this::downloadRuntime)
+                .add("installLoader", this::installLoader, "downloadMinecraft", "organiseLibraries")
+                .add("downloadMods", this::downloadMods)
+                .add("installMods", this::installMods, "downloadMods", "installLoader")
+                .add("installLegacyJavaFixer", this::installLegacyJavaFixer, "installMods")
+                .add("runCaseConversion", this::runCaseConversion, "installLegacyJavaFixer")
+                .add("runActions", this::runActions, "runCaseConversion")
+                .add("installConfigs", this::installConfigs, "runActions")
+                .add("downloadInstanceImage", this::downloadInstanceImage)
+                .add("checkModsOnCurseForge", this::checkModsOnCurseForge, "installConfigs")
+                .add("cleanDirectories", this::cleanDirectories, "downloadResources", "downloadLoggingClient",
+                        "downloadRuntime", "downloadInstanceImage", "checkModsOnCurseForge");
+
+        setTotalBytes(0);
+        runningConcurrentStages = true;
 
-        downloadInstanceImage();
-        if (isCancelled()) {
-            return false;
-        }
-
-        checkModsOnCurseForge();
-        if (isCancelled()) {
-            return false;
+        try {
+            taskGraph.run();
+        } finally {
+            runningConcurrentStages = false;
+            hideSubProgressBar();
         }
 
-        cleanDirectories();
         if (isCancelled()) {
             return false;
         }
@@ -1651,7 +1621,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         fireTask(GetText.tr("Organising Resources"));
         fireSubProgressUnknown();
-        this.totalBytes = this.downloadedBytes = 0;
 
         MojangAssetIndex assetIndex = this.minecraftVersion.assetIndex;
 
@@ -1711,8 +1680,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         addPercent(5);
         fireTask(GetText.tr("Downloading Minecraft"));
         fireSubProgressUnknown();
-        totalBytes = 0;
-        downloadedBytes = 0;
 
         MojangDownloads downloads = this.minecraftVersion.downloads;
 
@@ -2129,6 +2096,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             addSubPercent(subPercentPerMod);
         });
 
+        ModStoreManager.save();
+
         hideSubProgressBar();
     }
 
@@ -2433,21 +2402,58 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Checking Mods On CurseForge"));
         fireSubProgressUnknown();
 
-        Map<Long, DisableableMod> murmurHashes = new HashMap<>();
+        Map<Long, DisableableMod> murmurHashes = new ConcurrentHashMap<>();
+        List<Long> pendingFingerprints = new ArrayList<>();
+        List<CompletableFuture<Void>> lookupFutures = Collections.synchronizedList(new ArrayList<>());
+
+        // hash the mods in parallel, sending off fingerprints to CurseForge in batches while the rest are hashed
+        List<CompletableFuture<Void>> hashFutures = this.modsInstalled.stream()
+                .filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
+                .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null)
+                .map(dm -> DownloadScheduler.submit(() -> {
+                    if (isCancelled()) {
+                        return;
+                    }
 
-        this.modsInstalled.stream().filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
-                .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null).forEach(dm -> {
                     try {
                         long hash = Hashing.murmur(dm.getFile(root, this.packVersion.minecraft).toPath());
                         murmurHashes.put(hash, dm);
+
+                        Long[] batch = null;
+                        synchronized (pendingFingerprints) {
+                            pendingFingerprints.add(hash);
+
+                            if (pendingFingerprints.size() >= CURSEFORGE_FINGERPRINT_BATCH_SIZE) {
+                                batch = pendingFingerprints.toArray(new Long[0]);
+                                pendingFingerprints.clear();
+                            }
+                        }
+
+                        if (batch != null) {
+                            lookupFutures.add(checkFingerprintsOnCurseForge(batch, murmurHashes));
+                        }
                     } catch (Throwable t) {
                         LogManager.logStackTrace(t);
                     }
-                });
+                })).collect(Collectors.toList());
 
-        if (murmurHashes.size() != 0) {
-            CurseForgeFingerprint fingerprintResponse = CurseForgeApi
-                    .checkFingerprints(murmurHashes.keySet().stream().toArray(Long[]::new));
+        DownloadScheduler.await(hashFutures);
+
+        if (pendingFingerprints.size() != 0) {
+            lookupFutures.add(checkFingerprintsOnCurseForge(pendingFingerprints.toArray(new Long[0]), murmurHashes));
+        }
+
+        DownloadScheduler.await(new ArrayList<>(lookupFutures));
+    }
+
+    private CompletableFuture<Void> checkFingerprintsOnCurseForge(Long[] fingerprints,
+            Map<Long, DisableableMod> murmurHashes) {
+        return DownloadScheduler.submit(Constants.CURSEFORGE_CORE_API_URL, () -> {
+            if (isCancelled()) {
+                return;
+            }
+
+            CurseForgeFingerprint fingerprintResponse = CurseForgeApi.checkFingerprints(fingerprints);
 
             if (fingerprintResponse != null && fingerprintResponse.exactMatches != null) {
                 int[] projectIdsFound = fingerprintResponse.exactMatches.stream().mapToInt(em -> em.id).toArray();
@@ -2479,7 +2485,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     }
                 }
             }
-        }
+        });
     }
 
     public List<Mod> sortMods(List<Mod> original) {
@@ -3036,7 +3042,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         firePropertyChange("subprogressint", null, null);
     }
 
-    protected void addPercent(double percent) {
+    protected synchronized void addPercent(double percent) {
         this.percent = this.percent + percent;
         if (this.percent > 100.0) {
             this.percent = 100.0;
@@ -3044,7 +3050,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireProgress(this.percent);
     }
 
-    public void setSubPercent(double percent) {
+    public synchronized void setSubPercent(double percent) {
         this.subPercent = percent;
         if (this.subPercent > 100.0) {
             this.subPercent = 100.0;
@@ -3052,7 +3058,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireSubProgress(this.subPercent);
     }
 
-    public void addSubPercent(double percent) {
+    public synchronized void addSubPercent(double percent) {
         this.subPercent = this.subPercent + percent;
         if (this.subPercent > 100.0) {
             this.subPercent = 100.0;
@@ -3066,32 +3072,32 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
     @Override
     public void setTotalBytes(long bytes) {
-        this.downloadedBytes = 0L;
-        this.totalBytes = bytes;
-        this.updateProgressBar();
+        if (runningConcurrentStages) {
+            downloadProgress.addTotalBytes(bytes);
+        } else {
+            downloadProgress.setTotalBytes(bytes);
+        }
     }
 
     @Override
     public void addDownloadedBytes(long bytes) {
-        this.downloadedBytes += bytes;
-        this.updateProgressBar();
+        downloadProgress.addDownloadedBytes(bytes);
     }
 
     @Override
     public void addBytesToDownload(long bytes) {
-        this.totalBytes += bytes;
-        this.updateProgressBar();
+        downloadProgress.addTotalBytes(bytes);
     }
 
-    private void updateProgressBar() {
+    private void updateProgressBar(long downloadedBytes, long totalBytes) {
         double progress;
-        if (this.totalBytes > 0) {
-            progress = (this.downloadedBytes / this.totalBytes) * 100.0;
+        if (totalBytes > 0) {
+            progress = ((double) downloadedBytes / totalBytes) * 100.0;
         } else {
             progress = 0.0;
         }
-        double done = this.downloadedBytes / 1024.0 / 1024.0;
-        double toDo = this.totalBytes / 1024.0 / 1024.0;
+        double done = downloadedBytes / 1024.0 / 1024.0;
+        double toDo = totalBytes / 1024.0 / 1024.0;
         if (done > toDo) {
             fireSubProgress(100.0, String.format("%.2f MB", done));
         } else {
@@ -3100,6 +3106,12 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     }
 
     private void hideSubProgressBar() {
+        // other stages may still be showing their progress
+        if (runningConcurrentStages) {
+            return;
+        }
+
+        downloadProgress.stopReporting();
         fireSubProgress(-1);
     }
 }
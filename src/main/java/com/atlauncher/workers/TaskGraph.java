@@ -0,0 +1,216 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.PerformanceManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A set of named tasks with dependencies between them. When run, each task starts as soon as all the tasks it depends
+ * on have finished, so independent tasks (such as downloading libraries and downloading mods) run at the same time.
+ *
+ * If a task fails, or the given cancellation check returns true, tasks which haven't started yet are skipped and
+ * running tasks are interrupted.
+ */
+public class TaskGraph {
+    // tasks are expected to block on things like downloads, so threads are created as needed
+    private static final ExecutorService EXECUTOR = Executors
+            .newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("TaskGraph-%d").setDaemon(true).build());
+
+    private final String name;
+    private final BooleanSupplier isCancelled;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final Set<Thread> running = new HashSet<>();
+    private volatile boolean cancelled = false;
+
+    public TaskGraph(String name, BooleanSupplier isCancelled) {
+        this.name = name;
+        this.isCancelled = isCancelled;
+    }
+
+    /**
+     * Adds a task to the graph. Tasks it depends on must have already been added, so the graph can't have cycles.
+     */
+    public TaskGraph add(String taskName, Task task, String... dependsOn) {
+        if (nodes.containsKey(taskName)) {
+            throw new IllegalArgumentException("Task " + taskName + " has already been added");
+        }
+
+        List<Node> dependencies = new ArrayList<>();
+        for (String dependency : dependsOn) {
+            if (!nodes.containsKey(dependency)) {
+                throw new IllegalArgumentException(
+                        "Task " + taskName + " depends on " + dependency + " which hasn't been added");
+            }
+
+            dependencies.add(nodes.get(dependency));
+        }
+
+        nodes.put(taskName, new Node(taskName, task, dependencies));
+
+        return this;
+    }
+
+    /**
+     * Runs all the tasks, blocking until they've all finished or been skipped.
+     *
+     * @throws Exception the exception thrown by the first task that failed, if any
+     */
+    public void run() throws Exception {
+        PerformanceManager.start(name);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            CompletableFuture<?>[] dependencies = node.dependencies.stream().map(d -> d.future)
+                    .toArray(CompletableFuture<?>[]::new);
+
+            node.future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> runNode(node), EXECUTOR);
+            futures.add(node.future);
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                all.get(250, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                if (!cancelled && isCancelled.getAsBoolean()) {
+                    cancel();
+                }
+            } catch (InterruptedException e) {
+                // still wait for running tasks to stop before returning
+                interrupted = true;
+                cancel();
+            } catch (ExecutionException | CancellationException e) {
+                // only completes once every task has finished or been skipped, the exception is rethrown below
+                break;
+            }
+        }
+
+        PerformanceManager.end(name);
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Node node : nodes.values()) {
+            if (node.exception != null) {
+                throw node.exception;
+            }
+        }
+    }
+
+    private void runNode(Node node) {
+        if (cancelled || isCancelled.getAsBoolean()) {
+            throw new CancellationException(node.name + " skipped as " + name + " was cancelled");
+        }
+
+        synchronized (running) {
+            running.add(Thread.currentThread());
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            PerformanceManager.start(name + " - " + node.name);
+            node.task.run();
+        } catch (Exception e) {
+            // failures after cancelling are most likely just from being interrupted, so don't report them
+            if (!cancelled) {
+                node.exception = e;
+                LogManager.debug(name + " - " + node.name + " failed, cancelling remaining tasks");
+                cancel();
+            }
+
+            throw new CompletionException(e);
+        } finally {
+            node.timeTaken = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            PerformanceManager.end(name + " - " + node.name);
+
+            synchronized (running) {
+                running.remove(Thread.currentThread());
+
+                // don't leave the pooled thread interrupted for whatever runs on it next
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * How long each task took to run in milliseconds, in the order they were added. Tasks which were skipped are left
+     * out.
+     */
+    public Map<String, Long> getTimings() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+
+        for (Node node : nodes.values()) {
+            if (node.timeTaken != -1L) {
+                timings.put(node.name, node.timeTaken);
+            }
+        }
+
+        return timings;
+    }
+
+    private void cancel() {
+        cancelled = true;
+
+        synchronized (running) {
+            running.stream().filter(t -> t != Thread.currentThread()).forEach(Thread::interrupt);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private static final class Node {
+        private final String name;
+        private final Task task;
+        private final List<Node> dependencies;
+        private CompletableFuture<Void> future;
+        private volatile Exception exception;
+        private volatile long timeTaken = -1L;
+
+        private Node(String name, Task task, List<Node> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+}
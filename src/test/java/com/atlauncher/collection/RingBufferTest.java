@@ -0,0 +1,111 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.atlauncher.collection.RingBuffer.OverflowPolicy;
+
+import org.junit.jupiter.api.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testThatDropOldestKeepsNewestElements() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3, OverflowPolicy.DROP_OLDEST, i -> false, () -> false);
+
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+
+        assertEquals(Arrays.asList(2, 3, 4), drained);
+        assertEquals(2, buffer.getDropped());
+    }
+
+    @Test
+    public void testThatSamplingAlwaysKeepsElementsThatMustBeKept() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2, OverflowPolicy.SAMPLE, i -> i < 0, () -> false);
+
+        buffer.offer(1);
+        buffer.offer(2);
+        buffer.offer(3); // first offered while full is kept
+        buffer.offer(4);
+        buffer.offer(-1);
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+
+        assertEquals(Arrays.asList(3, -1), drained);
+        assertEquals(3, buffer.getDropped());
+    }
+
+    @Test
+    public void testThatBlockingWaitsForSpaceWithoutDropping() throws InterruptedException {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4, OverflowPolicy.BLOCK, i -> false, () -> true);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                buffer.offer(i);
+            }
+        });
+        producer.start();
+
+        List<Integer> drained = new ArrayList<>();
+        while (drained.size() < 1000) {
+            buffer.drainTo(drained, 3);
+        }
+        producer.join();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, drained.get(i));
+        }
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    public void testThatBlockingStopsWaitingWhenTheConsumerGoesAway() throws InterruptedException {
+        AtomicBoolean consumerAlive = new AtomicBoolean(true);
+        RingBuffer<Integer> buffer = new RingBuffer<>(2, OverflowPolicy.BLOCK, i -> false, consumerAlive::get);
+        buffer.offer(1);
+        buffer.offer(2);
+
+        Thread producer = new Thread(() -> buffer.offer(3));
+        producer.start();
+
+        // give the producer a chance to start waiting for space
+        Thread.sleep(100);
+        consumerAlive.set(false);
+        producer.join(5000);
+
+        assertFalse(producer.isAlive());
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+
+        assertEquals(Arrays.asList(2, 3), drained);
+        assertEquals(1, buffer.getDropped());
+    }
+}
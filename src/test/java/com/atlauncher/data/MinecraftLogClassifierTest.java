@@ -0,0 +1,65 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.atlauncher.data.MinecraftLogClassifier.Classification;
+import com.atlauncher.evnt.LogEvent.LogType;
+
+import org.junit.jupiter.api.Test;
+
+public class MinecraftLogClassifierTest {
+    @Test
+    public void testThatTheFirstMatchingRuleWins() {
+        Classification classification = MinecraftLogClassifier.classify("12:00:00 [main/WARN] [INFO] hello", null);
+        assertEquals(LogType.INFO, classification.type);
+        assertEquals("[INFO] hello", classification.message);
+
+        classification = MinecraftLogClassifier.classify("12:00:00 [Client thread/ERROR] broken", null);
+        assertEquals(LogType.ERROR, classification.type);
+        assertEquals("[Client thread/ERROR] broken", classification.message);
+
+        classification = MinecraftLogClassifier.classify("something", null);
+        assertEquals(LogType.INFO, classification.type);
+        assertEquals("something", classification.message);
+    }
+
+    @Test
+    public void testThatExceptionsToRulesOnlyApplyAfterTheMarker() {
+        assertEquals(LogType.ERROR, MinecraftLogClassifier.classify("2013 [INFO] ID CONFLICT", null).type);
+        assertEquals(LogType.INFO, MinecraftLogClassifier.classify("CONFLICT 2013 [INFO] fine", null).type);
+        assertEquals(LogType.WARN,
+                MinecraftLogClassifier.classify("[INFO] overwriting existing item at id 12", null).type);
+    }
+
+    @Test
+    public void testThatCrashSignaturesAreDetected() {
+        assertEquals(MinecraftError.OUT_OF_MEMORY,
+                MinecraftLogClassifier.classify("java.lang.OutOfMemoryError: Java heap space", "1.16.5").error);
+        assertEquals(0, MinecraftLogClassifier.classify("[main/INFO] all good", "1.16.5").error);
+
+        assertEquals(MinecraftError.CONCURRENT_MODIFICATION_ERROR_1_6,
+                MinecraftLogClassifier.classify("java.util.ConcurrentModificationException", "1.6.4").error);
+        assertEquals(0, MinecraftLogClassifier.classify("java.util.ConcurrentModificationException", "1.12.2").error);
+
+        Classification classification = MinecraftLogClassifier.classify("<log4j:Event>", null);
+        assertTrue(classification.log4j && classification.log4jEventStart && !classification.log4jEventEnd);
+    }
+}
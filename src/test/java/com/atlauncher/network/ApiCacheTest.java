@@ -0,0 +1,115 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ApiCacheTest {
+    @BeforeEach
+    public void clear() {
+        ApiCache.clear();
+    }
+
+    @Test
+    public void testThatFreshResponsesComeFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("1", ApiCache.get("fresh", 1, TimeUnit.HOURS, () -> "" + loads.incrementAndGet()));
+        assertEquals("1", ApiCache.get("fresh", 1, TimeUnit.HOURS, () -> "" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testThatFailedRequestsAreNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(ApiCache.get("failed", 1, TimeUnit.HOURS, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals("ok", ApiCache.get("failed", 1, TimeUnit.HOURS, () -> {
+            loads.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testThatConcurrentRequestsAreOnlyMadeOnce() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = new ArrayList<>();
+
+        Thread first = new Thread(() -> {
+            String result = ApiCache.get("concurrent", 1, TimeUnit.HOURS, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+
+                return "value";
+            });
+
+            synchronized (results) {
+                results.add(result);
+            }
+        });
+        first.start();
+        started.await();
+
+        List<Thread> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread other = new Thread(() -> {
+                String result = ApiCache.get("concurrent", 1, TimeUnit.HOURS, () -> "" + loads.incrementAndGet());
+
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            other.start();
+            others.add(other);
+        }
+
+        // give the other threads a chance to start waiting on the first request
+        Thread.sleep(100);
+        release.countDown();
+
+        first.join();
+        for (Thread other : others) {
+            other.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(5, results.size());
+        results.forEach(result -> assertEquals("value", result));
+    }
+}